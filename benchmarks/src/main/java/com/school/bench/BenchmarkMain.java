@@ -0,0 +1,30 @@
+package com.school.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * JMH entry point. Accepts the usual JMH command line and defaults the result
+ * format to JSON so consecutive runs can be diffed (e.g. with jmh.morethan.io).
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.resultFormat(ResultFormatType.JSON);
+            if (!cli.getResult().hasValue()) {
+                options.result("jmh-result-" + stamp + ".json");
+            }
+        }
+        new Runner(options.build()).run();
+    }
+}
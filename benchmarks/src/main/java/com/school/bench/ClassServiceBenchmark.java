@@ -0,0 +1,59 @@
+package com.school.bench;
+
+import com.school.dto.ClassSummary;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassServiceBenchmark {
+
+    @Benchmark
+    public void enrollAndRemoveStudent(SchoolState state) {
+        long studentId = state.randomStudentId();
+        state.classService.enrollStudent(state.dataset.benchClassId, studentId);
+        state.classService.removeStudent(state.dataset.benchClassId, studentId);
+    }
+
+    @Benchmark
+    public KeysetPage<ClassSummary> availableClasses(SchoolState state) {
+        return state.classService.getAvailableClasses(KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public KeysetPage<ClassSummary> allClassesFirstPage(SchoolState state) {
+        return state.classService.getAllClasses(KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public KeysetPage<ClassSummary> classesByStudent(SchoolState state) {
+        return state.classService.getClassesByStudent(state.randomStudentId(), KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public KeysetPage<ClassSummary> classesByTeacher(SchoolState state) {
+        return state.classService.getClassesByTeacher(state.randomTeacherId(), KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public KeysetPage<ClassSummary> classesBySubject(SchoolState state) {
+        return state.classService.getClassesBySubject(state.randomSubjectId(), KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public KeysetPage<ClassSummary> classesBySemester(SchoolState state) {
+        return state.classService.getClassesBySemesterAndYear("Fall", "2024-2025", KeysetRequest.firstPage());
+    }
+}
@@ -0,0 +1,158 @@
+package com.school.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing server execution modes (e.g. platform
+ * vs. virtual threads) on the listing and enrollment endpoints. Reports throughput and
+ * latency percentiles per scenario.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.school.bench.HttpLoadTest \
+ *     --url=http://localhost:8080 --concurrency=400 --seconds=30 --students=10000 --classes=2000
+ * </pre>
+ *
+ * With {@code --compare=http://localhost:8081} each read scenario is also run against a second
+ * server, e.g. the reactive catalog module, and reported on the next line.
+ * The ID ranges should match the server's dataset (e.g. the synthetic-data profile).
+ */
+public class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        int students = Integer.parseInt(options.getOrDefault("students", "10000"));
+        int classes = Integer.parseInt(options.getOrDefault("classes", "2000"));
+        String compare = options.get("compare");
+        List<String> scenarios = Arrays.asList(options.getOrDefault("scenarios",
+                compare == null ? "list,available,enroll" : "subjects,list,available,roster").split(","));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 8)))
+                .build();
+
+        System.out.printf("%-10s %-22s %8s %10s %10s %10s %10s %10s %8s%n",
+                "scenario", "server", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (String scenario : scenarios) {
+            List<String> servers = compare == null || scenario.equals("enroll") ? List.of(url) : List.of(url, compare);
+            for (String server : servers) {
+                Request request = request(scenario, server, students, classes);
+                // Short warm-up so JIT and connection setup are not measured
+                run(client, request, concurrency, Math.max(2, seconds / 5));
+                Result result = run(client, request, concurrency, seconds);
+                System.out.printf("%-10s %-22s %8d %10.0f %10.2f %10.2f %10.2f %10.2f %8d%n", scenario,
+                        URI.create(server).getAuthority(), result.latencies.length,
+                        result.latencies.length / (double) seconds,
+                        result.percentile(50), result.percentile(90), result.percentile(99),
+                        result.percentile(100), result.errors);
+            }
+        }
+        System.exit(0);
+    }
+
+    // The read scenarios use endpoints both the MVC app and the reactive catalog module serve
+    private static Request request(String scenario, String url, int students, int classes) {
+        return switch (scenario) {
+            case "subjects" -> random -> List.of(get(url + "/api/subjects?limit=50"));
+            case "list" -> random -> List.of(get(url + "/api/classes?limit=50&after=" + random.nextInt(classes)));
+            case "available" -> random -> List.of(get(url + "/api/classes/available?limit=50"));
+            case "roster" -> random -> List.of(get(url + "/api/classes/student/" + (1 + random.nextInt(students)) + "?limit=50"));
+            case "enroll" -> random -> {
+                String path = url + "/api/classes/" + (1 + random.nextInt(classes))
+                        + "/enroll/" + (1 + random.nextInt(students));
+                return List.of(HttpRequest.newBuilder(URI.create(path)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                        HttpRequest.newBuilder(URI.create(path)).DELETE().build());
+            };
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    private static Result run(HttpClient client, Request request, int concurrency, int seconds) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] samples = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    for (HttpRequest r : request.next(random)) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(r, HttpResponse.BodyHandlers.discarding());
+                            // 400 is an expected business outcome for enroll (full / duplicate)
+                            if (response.statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                }
+                return Arrays.copyOf(samples, count);
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] samples = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + samples.length);
+            System.arraycopy(samples, 0, all, offset, samples.length);
+        }
+        workers.shutdown();
+        Arrays.sort(all);
+        return new Result(all, errors.get());
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        List<HttpRequest> next(ThreadLocalRandom random);
+    }
+
+    private record Result(long[] latencies, long errors) {
+        double percentile(int p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1_000_000.0;
+        }
+    }
+}
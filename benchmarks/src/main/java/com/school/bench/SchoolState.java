@@ -0,0 +1,92 @@
+package com.school.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.SchoolApplication;
+import com.school.service.ClassService;
+import com.school.service.StudentService;
+import com.school.service.SubjectService;
+import com.school.service.TeacherService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application context (JPA + H2, no web server) once per trial and
+ * fills a fresh in-memory database with a synthetic dataset of the requested size.
+ * Class sizes and GPAs follow the school.synthetic-data defaults.
+ */
+@State(Scope.Benchmark)
+public class SchoolState {
+
+    @Param("10000")
+    public int students;
+
+    @Param("500")
+    public int teachers;
+
+    @Param("50")
+    public int subjects;
+
+    @Param("2000")
+    public int classes;
+
+    @Param("42")
+    public long seed;
+
+    ConfigurableApplicationContext context;
+    ClassService classService;
+    StudentService studentService;
+    TeacherService teacherService;
+    SubjectService subjectService;
+    ObjectMapper objectMapper;
+
+    SyntheticDataset dataset;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SchoolApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench_" + System.nanoTime(),
+                        "spring.jpa.show-sql=false",
+                        "school.enrollment.reconcile-cron=-",
+                        "logging.level.root=WARN")
+                .run();
+        classService = context.getBean(ClassService.class);
+        studentService = context.getBean(StudentService.class);
+        teacherService = context.getBean(TeacherService.class);
+        subjectService = context.getBean(SubjectService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        dataset = SyntheticDataset.populate(context, this);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    long randomStudentId() {
+        return dataset.studentIds[ThreadLocalRandom.current().nextInt(dataset.studentIds.length)];
+    }
+
+    long randomTeacherId() {
+        return dataset.teacherIds[ThreadLocalRandom.current().nextInt(dataset.teacherIds.length)];
+    }
+
+    long randomSubjectId() {
+        return dataset.subjectIds[ThreadLocalRandom.current().nextInt(dataset.subjectIds.length)];
+    }
+
+    int randomIndex(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+}
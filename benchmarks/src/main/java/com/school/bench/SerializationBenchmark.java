@@ -0,0 +1,125 @@
+package com.school.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.school.dto.ClassSummary;
+import com.school.entity.Student;
+import com.school.entity.Subject;
+import com.school.entity.Teacher;
+import com.school.repository.KeysetRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of the entity lists the list endpoints return, as the response body would be
+ * produced: {@code reflective} is Jackson without Blackbird (the mapper before it was added),
+ * {@code json} the application's ObjectMapper, {@code smile} and {@code cbor} the mappers behind
+ * Accept negotiation, and {@code gzip} adds Tomcat's compression at its default level. Time per
+ * op is the CPU per response; the bytes per response of each page are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    @Param({"reflective", "json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private List<Student> students;
+    private List<Teacher> teachers;
+    private List<Subject> subjects;
+    private List<ClassSummary> classes;
+
+    private ObjectMapper mapper;
+    // Reused like the container's response buffer; grows once to the largest page
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup(Level.Trial)
+    public void loadPages(SchoolState state) throws IOException {
+        KeysetRequest page = KeysetRequest.of(null, pageSize, null, null);
+        students = state.studentService.getAllStudents(page).getItems();
+        teachers = state.teacherService.getAllTeachers(page).getItems();
+        subjects = state.subjectService.getAllSubjects(page).getItems();
+        classes = state.classService.getAllClasses(page).getItems();
+
+        mapper = switch (format) {
+            // Boot's defaults without the Blackbird module
+            case "reflective" -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                            SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                    .build();
+            case "json" -> state.objectMapper;
+            case "smile" -> state.context.getBean(Jackson2ObjectMapperBuilder.class).factory(new SmileFactory()).build();
+            case "cbor" -> state.context.getBean(Jackson2ObjectMapperBuilder.class).factory(new CBORFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        if (format.equals("reflective") && !Arrays.equals(mapper.writeValueAsBytes(classes),
+                state.objectMapper.writeValueAsBytes(classes))) {
+            throw new IllegalStateException("Reflective mapper does not write what the application's does");
+        }
+
+        System.out.printf("%n%s%s, %d rows: students %d, teachers %d, subjects %d, classes %d bytes per response%n",
+                format, gzip ? "+gzip" : "", pageSize, serialize(students), serialize(teachers),
+                serialize(subjects), serialize(classes));
+    }
+
+    @Benchmark
+    public int students() throws IOException {
+        return serialize(students);
+    }
+
+    @Benchmark
+    public int teachers() throws IOException {
+        return serialize(teachers);
+    }
+
+    @Benchmark
+    public int subjects() throws IOException {
+        return serialize(subjects);
+    }
+
+    @Benchmark
+    public int classes() throws IOException {
+        return serialize(classes);
+    }
+
+    private int serialize(Object value) throws IOException {
+        buffer.reset();
+        if (gzip) {
+            // Closed by Jackson, which finishes the stream
+            mapper.writeValue(new GZIPOutputStream(buffer, 8192), value);
+        } else {
+            mapper.writeValue(buffer, value);
+        }
+        return buffer.size();
+    }
+}
@@ -0,0 +1,54 @@
+package com.school.bench;
+
+import com.school.entity.Student;
+import com.school.config.SyntheticDataGenerator;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    @Benchmark
+    public KeysetPage<Student> allStudentsFirstPage(SchoolState state) {
+        return state.studentService.getAllStudents(KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public KeysetPage<Student> allStudentsSortedByLastName(SchoolState state) {
+        return state.studentService.getAllStudents(KeysetRequest.of(null, null, "lastName", "asc"));
+    }
+
+    @Benchmark
+    public KeysetPage<Student> studentsByGradeLevel(SchoolState state) {
+        return state.studentService.getStudentsByGradeLevel(9 + state.randomIndex(4), KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public KeysetPage<Student> studentsWithGpaAbove(SchoolState state) {
+        return state.studentService.getStudentsWithGpaAbove(3.5, KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public Optional<Student> studentById(SchoolState state) {
+        return state.studentService.getStudentById(state.randomStudentId());
+    }
+
+    @Benchmark
+    public Optional<Student> studentByEmail(SchoolState state) {
+        return state.studentService.getStudentByEmail(SyntheticDataGenerator.studentEmail(state.randomIndex(state.students)));
+    }
+}
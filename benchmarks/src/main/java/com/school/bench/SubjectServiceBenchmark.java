@@ -0,0 +1,39 @@
+package com.school.bench;
+
+import com.school.entity.Subject;
+import com.school.config.SyntheticDataGenerator;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubjectServiceBenchmark {
+
+    @Benchmark
+    public KeysetPage<Subject> allSubjectsFirstPage(SchoolState state) {
+        return state.subjectService.getAllSubjects(KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public Optional<Subject> subjectById(SchoolState state) {
+        return state.subjectService.getSubjectById(state.randomSubjectId());
+    }
+
+    @Benchmark
+    public Optional<Subject> subjectByName(SchoolState state) {
+        return state.subjectService.getSubjectByName(SyntheticDataGenerator.subjectName(state.randomIndex(state.subjects)));
+    }
+}
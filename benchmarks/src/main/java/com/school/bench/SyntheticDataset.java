@@ -0,0 +1,53 @@
+package com.school.bench;
+
+import com.school.config.SyntheticDataGenerator;
+import com.school.config.SyntheticDataProperties;
+import com.school.service.NameSearch;
+import com.school.service.TimetableIndex;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds the benchmark database with the application's {@link SyntheticDataGenerator}
+ * and keeps the generated IDs around so benchmarks can pick random rows cheaply.
+ */
+final class SyntheticDataset {
+
+    long[] subjectIds;
+    long[] teacherIds;
+    long[] studentIds;
+    long benchClassId;
+
+    private SyntheticDataset() {}
+
+    static SyntheticDataset populate(ApplicationContext context, SchoolState size) {
+        SyntheticDataProperties props = new SyntheticDataProperties();
+        props.setSeed(size.seed);
+        props.setStudents(size.students);
+        props.setTeachers(size.teachers);
+        props.setSubjects(size.subjects);
+        props.setClasses(size.classes);
+        context.getBean(SyntheticDataGenerator.class).generate(props);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        SyntheticDataset data = new SyntheticDataset();
+        data.subjectIds = ids(jdbc, "subjects");
+        data.teacherIds = ids(jdbc, "teachers");
+        data.studentIds = ids(jdbc, "students");
+
+        // A class with room for everyone, used by the enroll/remove benchmark
+        jdbc.update("INSERT INTO classes (name, capacity, semester, academic_year, enrolled_count, seats_remaining, "
+                + "subject_id, teacher_id) VALUES ('Benchmark Class', ?, 'Fall', '2024-2025', 0, ?, ?, ?)",
+                size.students, size.students, data.subjectIds[0], data.teacherIds[0]);
+        data.benchClassId = jdbc.queryForObject("SELECT MAX(id) FROM classes", Long.class);
+        // Rows were written behind the service layer, so reload the in-memory indexes from them
+        context.getBean(TimetableIndex.class).rebuild();
+        context.getBean(NameSearch.class).rebuild();
+        return data;
+    }
+
+    private static long[] ids(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+}
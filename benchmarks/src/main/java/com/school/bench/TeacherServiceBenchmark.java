@@ -0,0 +1,39 @@
+package com.school.bench;
+
+import com.school.entity.Teacher;
+import com.school.config.SyntheticDataGenerator;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeacherServiceBenchmark {
+
+    @Benchmark
+    public KeysetPage<Teacher> allTeachersFirstPage(SchoolState state) {
+        return state.teacherService.getAllTeachers(KeysetRequest.firstPage());
+    }
+
+    @Benchmark
+    public Optional<Teacher> teacherById(SchoolState state) {
+        return state.teacherService.getTeacherById(state.randomTeacherId());
+    }
+
+    @Benchmark
+    public Optional<Teacher> teacherByEmail(SchoolState state) {
+        return state.teacherService.getTeacherByEmail(SyntheticDataGenerator.teacherEmail(state.randomIndex(state.teachers)));
+    }
+}
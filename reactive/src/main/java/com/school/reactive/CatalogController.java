@@ -0,0 +1,156 @@
+package com.school.reactive;
+
+import com.school.reactive.dto.ClassSummary;
+import com.school.reactive.dto.RosterEntry;
+import com.school.reactive.dto.SubjectView;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only catalog and roster endpoints mirroring the MVC ones. A list is a JSON array of at
+ * most {@code limit} rows (default 50, as in the MVC app), or with {@code Accept:
+ * application/x-ndjson} a stream of one row per line that runs to the end of the table unless a
+ * limit is given. Either way rows are read as the client takes them; continue a page with the
+ * last ID as {@code after}.
+ */
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Catalog (reactive)", description = "Non-blocking reads of subjects, classes and class rosters")
+public class CatalogController {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private final CatalogRepository catalog;
+
+    @Autowired
+    public CatalogController(CatalogRepository catalog) {
+        this.catalog = catalog;
+    }
+
+    @GetMapping(value = "/subjects", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "List subjects", description = "Subjects in ID order after the cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved subjects"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<Flux<SubjectView>> getSubjects(
+            @Parameter(description = "Return subjects with an ID greater than this") @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of subjects (1-" + MAX_LIMIT + " for JSON; unbounded for NDJSON)") @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request) {
+        return list(limit, request, size -> catalog.findSubjects(after, size));
+    }
+
+    @GetMapping("/subjects/{id}")
+    @Operation(summary = "Get subject by ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved subject"),
+        @ApiResponse(responseCode = "404", description = "Subject not found")
+    })
+    public Mono<ResponseEntity<SubjectView>> getSubjectById(@Parameter(description = "Subject ID") @PathVariable Long id) {
+        return catalog.findSubject(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/classes", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "List classes", description = "Classes with their subject and teacher names, in ID order after the cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<Flux<ClassSummary>> getClasses(
+            @Parameter(description = "Return classes with an ID greater than this") @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of classes (1-" + MAX_LIMIT + " for JSON; unbounded for NDJSON)") @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request) {
+        return list(limit, request, size -> catalog.findClasses(after, size));
+    }
+
+    @GetMapping(value = "/classes/available", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "List classes with free seats", description = "Capped classes with seats remaining, in ID order after the cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved available classes"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<Flux<ClassSummary>> getAvailableClasses(
+            @Parameter(description = "Return classes with an ID greater than this") @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of classes (1-" + MAX_LIMIT + " for JSON; unbounded for NDJSON)") @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request) {
+        return list(limit, request, size -> catalog.findAvailableClasses(after, size));
+    }
+
+    @GetMapping(value = "/classes/student/{studentId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get classes by student", description = "Classes the student is enrolled in, in ID order after the cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<Flux<ClassSummary>> getClassesByStudent(
+            @Parameter(description = "Student ID to filter by") @PathVariable Long studentId,
+            @Parameter(description = "Return classes with an ID greater than this") @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of classes (1-" + MAX_LIMIT + " for JSON; unbounded for NDJSON)") @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request) {
+        return list(limit, request, size -> catalog.findClassesByStudent(studentId, after, size));
+    }
+
+    @GetMapping("/classes/{id}")
+    @Operation(summary = "Get class by ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved class"),
+        @ApiResponse(responseCode = "404", description = "Class not found")
+    })
+    public Mono<ResponseEntity<ClassSummary>> getClassById(@Parameter(description = "Class ID") @PathVariable Long id) {
+        return catalog.findClass(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/classes/{id}/students", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get class roster", description = "Students enrolled in the class, in ID order after the cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved roster"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit"),
+        @ApiResponse(responseCode = "404", description = "Class not found")
+    })
+    public Mono<ResponseEntity<Flux<RosterEntry>>> getRoster(
+            @Parameter(description = "Class ID") @PathVariable Long id,
+            @Parameter(description = "Return students with an ID greater than this") @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of students (1-" + MAX_LIMIT + " for JSON; unbounded for NDJSON)") @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request) {
+        return catalog.classExists(id).map(exists -> exists
+                ? list(limit, request, size -> catalog.findRoster(id, after, size))
+                : ResponseEntity.notFound().build());
+    }
+
+    @FunctionalInterface
+    private interface Query<T> {
+        Flux<T> rows(Integer limit);
+    }
+
+    // A JSON array is capped like an MVC page; an NDJSON stream may run to the end (null limit)
+    private static <T> ResponseEntity<Flux<T>> list(Integer limit, ServerHttpRequest request, Query<T> query) {
+        boolean streaming = request.getHeaders().getAccept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        if (limit == null) {
+            return ResponseEntity.ok(query.rows(streaming ? null : DEFAULT_LIMIT));
+        }
+        if (limit < 1 || (!streaming && limit > MAX_LIMIT)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(query.rows(limit));
+    }
+}
@@ -0,0 +1,139 @@
+package com.school.reactive;
+
+import com.school.reactive.dto.ClassSummary;
+import com.school.reactive.dto.RosterEntry;
+import com.school.reactive.dto.SubjectView;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Catalog and roster queries over the MVC app's tables. Lists are keyset pages in ID order,
+ * rows after {@code after} as in the MVC list endpoints; without a limit a query reads to the
+ * end, and rows are only fetched as fast as the response is written.
+ *
+ * <p>H2 is an embedded, blocking engine and r2dbc-h2 runs each query on the thread that
+ * subscribes, so queries are subscribed on a scheduler with a thread per pooled connection
+ * rather than on the Netty event loop. A client waiting on a response holds no thread; only a
+ * query in progress does.
+ */
+@Repository
+public class CatalogRepository {
+
+    private static final String SUBJECT = "SELECT id, name, description, credits, version FROM subjects ";
+
+    private static final String CLASS_SUMMARY = "SELECT c.id, c.name, c.description, c.room_number, c.capacity, "
+            + "c.start_time, c.end_time, c.days_of_week, c.semester, c.academic_year, c.enrolled_count, "
+            + "c.seats_remaining, s.id AS subject_id, s.name AS subject_name, t.id AS teacher_id, "
+            + "t.first_name, t.last_name, c.version "
+            + "FROM classes c JOIN subjects s ON s.id = c.subject_id JOIN teachers t ON t.id = c.teacher_id ";
+
+    private static final String ROSTER = "SELECT st.id, st.first_name, st.last_name, st.email, st.grade_level "
+            + "FROM class_students cs JOIN students st ON st.id = cs.student_id ";
+
+    private final DatabaseClient client;
+    private final Scheduler scheduler;
+
+    @Autowired
+    public CatalogRepository(DatabaseClient client, @Value("${school.storage.pool-size}") int connections) {
+        this.client = client;
+        this.scheduler = Schedulers.newBoundedElastic(connections, Integer.MAX_VALUE, "r2dbc-h2");
+    }
+
+    public Flux<SubjectView> findSubjects(Long after, Integer limit) {
+        return page(SUBJECT + "WHERE id > :after ORDER BY id", Map.of(), after, limit, CatalogRepository::subject);
+    }
+
+    public Mono<SubjectView> findSubject(Long id) {
+        return one(SUBJECT + "WHERE id = :id", id, CatalogRepository::subject);
+    }
+
+    public Flux<ClassSummary> findClasses(Long after, Integer limit) {
+        return page(CLASS_SUMMARY + "WHERE c.id > :after ORDER BY c.id", Map.of(), after, limit,
+                CatalogRepository::classSummary);
+    }
+
+    // Same condition as ClassService.getAvailableClasses: uncapped classes are not listed
+    public Flux<ClassSummary> findAvailableClasses(Long after, Integer limit) {
+        return page(CLASS_SUMMARY + "WHERE c.seats_remaining > 0 AND c.id > :after ORDER BY c.id", Map.of(), after,
+                limit, CatalogRepository::classSummary);
+    }
+
+    public Flux<ClassSummary> findClassesByStudent(Long studentId, Long after, Integer limit) {
+        return page(CLASS_SUMMARY + "JOIN class_students cs ON cs.class_id = c.id "
+                + "WHERE cs.student_id = :studentId AND c.id > :after ORDER BY c.id",
+                Map.of("studentId", studentId), after, limit, CatalogRepository::classSummary);
+    }
+
+    public Mono<ClassSummary> findClass(Long id) {
+        return one(CLASS_SUMMARY + "WHERE c.id = :id", id, CatalogRepository::classSummary);
+    }
+
+    public Mono<Boolean> classExists(Long id) {
+        return client.sql("SELECT 1 FROM classes WHERE id = :id").bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE)
+                .subscribeOn(scheduler);
+    }
+
+    public Flux<RosterEntry> findRoster(Long classId, Long after, Integer limit) {
+        return page(ROSTER + "WHERE cs.class_id = :classId AND cs.student_id > :after ORDER BY cs.student_id",
+                Map.of("classId", classId), after, limit, CatalogRepository::rosterEntry);
+    }
+
+    @PreDestroy
+    void close() {
+        scheduler.dispose();
+    }
+
+    // IDs are identity values starting at 1, so "after 0" is the first page
+    private <T> Flux<T> page(String sql, Map<String, Object> filter, Long after, Integer limit,
+                             Function<Readable, T> mapper) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql(limit == null ? sql : sql + " LIMIT :limit")
+                .bindValues(filter)
+                .bind("after", after == null ? 0L : after);
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+        return spec.map(mapper).all().subscribeOn(scheduler);
+    }
+
+    private <T> Mono<T> one(String sql, Long id, Function<Readable, T> mapper) {
+        return client.sql(sql).bind("id", id).map(mapper).one().subscribeOn(scheduler);
+    }
+
+    private static SubjectView subject(Readable row) {
+        return new SubjectView(row.get("id", Long.class), row.get("name", String.class),
+                row.get("description", String.class), row.get("credits", Integer.class), row.get("version", Long.class));
+    }
+
+    private static ClassSummary classSummary(Readable row) {
+        return new ClassSummary(row.get("id", Long.class), row.get("name", String.class),
+                row.get("description", String.class), row.get("room_number", String.class),
+                row.get("capacity", Integer.class), row.get("start_time", LocalTime.class),
+                row.get("end_time", LocalTime.class), row.get("days_of_week", String.class),
+                row.get("semester", String.class), row.get("academic_year", String.class),
+                row.get("enrolled_count", Integer.class), row.get("seats_remaining", Integer.class),
+                row.get("subject_id", Long.class), row.get("subject_name", String.class),
+                row.get("teacher_id", Long.class), row.get("first_name", String.class),
+                row.get("last_name", String.class), row.get("version", Long.class));
+    }
+
+    private static RosterEntry rosterEntry(Readable row) {
+        return new RosterEntry(row.get("id", Long.class), row.get("first_name", String.class),
+                row.get("last_name", String.class), row.get("email", String.class),
+                row.get("grade_level", Integer.class));
+    }
+}
@@ -0,0 +1,35 @@
+package com.school.reactive;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pooled R2DBC connections to the MVC app's H2 TCP server. r2dbc-h2 only parses URLs for
+ * embedded databases, so the server URL is handed to the driver directly and Boot's
+ * {@code spring.r2dbc.url} handling is not used.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(@Value("${school.storage.host}") String host,
+                                            @Value("${school.storage.path}") String path,
+                                            @Value("${school.storage.username}") String username,
+                                            @Value("${school.storage.password}") String password,
+                                            @Value("${school.storage.pool-size}") int poolSize) {
+        H2ConnectionFactory h2 = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url("tcp://" + host + "/" + path)
+                .username(username)
+                .password(password)
+                .build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(h2)
+                .initialSize(Math.min(4, poolSize))
+                .maxSize(poolSize)
+                .build());
+    }
+}
@@ -0,0 +1,12 @@
+package com.school.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveCatalogApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveCatalogApplication.class, args);
+    }
+}
@@ -0,0 +1,121 @@
+package com.school.reactive.dto;
+
+import java.time.LocalTime;
+
+/**
+ * A class with its subject and teacher names, serialized like the MVC app's
+ * {@code com.school.dto.ClassSummary} so clients can switch between the two APIs.
+ */
+public class ClassSummary {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String roomNumber;
+    private final Integer capacity;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final String daysOfWeek;
+    private final String semester;
+    private final String academicYear;
+    private final int enrolledCount;
+    private final Integer seatsRemaining;
+    private final Long subjectId;
+    private final String subjectName;
+    private final Long teacherId;
+    private final String teacherName;
+    private final Long version;
+
+    public ClassSummary(Long id, String name, String description, String roomNumber, Integer capacity,
+                        LocalTime startTime, LocalTime endTime, String daysOfWeek, String semester,
+                        String academicYear, int enrolledCount, Integer seatsRemaining,
+                        Long subjectId, String subjectName,
+                        Long teacherId, String teacherFirstName, String teacherLastName, Long version) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.roomNumber = roomNumber;
+        this.capacity = capacity;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.daysOfWeek = daysOfWeek;
+        this.semester = semester;
+        this.academicYear = academicYear;
+        this.enrolledCount = enrolledCount;
+        this.seatsRemaining = seatsRemaining;
+        this.subjectId = subjectId;
+        this.subjectName = subjectName;
+        this.teacherId = teacherId;
+        this.teacherName = teacherFirstName + " " + teacherLastName;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public String getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public String getSemester() {
+        return semester;
+    }
+
+    public String getAcademicYear() {
+        return academicYear;
+    }
+
+    public int getEnrolledCount() {
+        return enrolledCount;
+    }
+
+    public Integer getSeatsRemaining() {
+        return seatsRemaining;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public String getTeacherName() {
+        return teacherName;
+    }
+
+    /** The class row's version, which also changes when its subject or teacher is renamed. */
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,41 @@
+package com.school.reactive.dto;
+
+/**
+ * A student enrolled in a class, as listed by the roster endpoint.
+ */
+public class RosterEntry {
+
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final Integer gradeLevel;
+
+    public RosterEntry(Long id, String firstName, String lastName, String email, Integer gradeLevel) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.gradeLevel = gradeLevel;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getGradeLevel() {
+        return gradeLevel;
+    }
+}
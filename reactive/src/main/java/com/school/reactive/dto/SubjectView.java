@@ -0,0 +1,41 @@
+package com.school.reactive.dto;
+
+/**
+ * A subject as the MVC {@code /api/subjects} endpoints return it.
+ */
+public class SubjectView {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Integer credits;
+    private final Long version;
+
+    public SubjectView(Long id, String name, String description, Integer credits, Long version) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.credits = credits;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Integer getCredits() {
+        return credits;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -54,12 +54,16 @@ public class HomeController {
                             <li><strong>Teachers:</strong> <a href="/api/teachers" class="link">/api/teachers</a></li>
                             <li><strong>Students:</strong> <a href="/api/students" class="link">/api/students</a></li>
                             <li><strong>Classes:</strong> <a href="/api/classes" class="link">/api/classes</a></li>
+                            <li><strong>Analytics:</strong> <a href="/api/analytics/students/gpa?groupBy=gradeLevel" class="link">/api/analytics/students/gpa</a>, <a href="/api/analytics/teachers/salary" class="link">/api/analytics/teachers/salary</a></li>
+                            <li><strong>Change log:</strong> <a href="/api/changes?since=0" class="link">/api/changes?since={offset}</a></li>
+                            <li><strong>Export:</strong> <a href="/api/export/students?format=csv" class="link">/api/export/{students|teachers|classes|enrollments}</a></li>
+                            <li><strong>Metrics:</strong> <a href="/actuator/prometheus" class="link">/actuator/prometheus</a></li>
                         </ul>
                     </div>
                     
                     <div class="section">
                         <h2>📝 Sample Data</h2>
-                        <p>The application comes pre-loaded with sample data including subjects, teachers, students, and classes with their relationships.</p>
+                        <p>Start the application with the <strong>sample-data</strong> profile to pre-load subjects, teachers, students, and classes with their relationships, or with the <strong>synthetic-data</strong> profile to generate a large load-test dataset (see school.synthetic-data.* settings).</p>
                     </div>
                 </div>
             </body>
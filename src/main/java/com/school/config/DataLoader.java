@@ -10,12 +10,15 @@ import com.school.service.SubjectService;
 import com.school.service.TeacherService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+// Small hand-written sample dataset; enable with --spring.profiles.active=sample-data
 @Component
+@Profile("sample-data")
 public class DataLoader implements CommandLineRunner {
     
     private final SubjectService subjectService;
@@ -34,6 +37,11 @@ public class DataLoader implements CommandLineRunner {
     
     @Override
     public void run(String... args) throws Exception {
+        // A durable database keeps the sample rows across restarts
+        if (subjectService.existsByName("Mathematics")) {
+            System.out.println("Sample data already present, skipping load");
+            return;
+        }
         // Load sample data
         loadSampleData();
     }
@@ -133,8 +141,8 @@ public class DataLoader implements CommandLineRunner {
         englishClass.setDescription("In-depth study of Shakespeare's works");
         englishClass.setRoomNumber("Room 104");
         englishClass.setCapacity(22);
-        englishClass.setStartTime(LocalTime.of(9, 0));
-        englishClass.setEndTime(LocalTime.of(10, 30));
+        englishClass.setStartTime(LocalTime.of(8, 0));
+        englishClass.setEndTime(LocalTime.of(9, 30));
         englishClass.setDaysOfWeek("Tuesday,Thursday");
         englishClass.setSemester("Fall");
         englishClass.setAcademicYear("2024-2025");
@@ -146,8 +154,8 @@ public class DataLoader implements CommandLineRunner {
         historyClass.setDescription("Study of world history from 1500 to present");
         historyClass.setRoomNumber("Room 105");
         historyClass.setCapacity(24);
-        historyClass.setStartTime(LocalTime.of(14, 0));
-        historyClass.setEndTime(LocalTime.of(15, 30));
+        historyClass.setStartTime(LocalTime.of(15, 0));
+        historyClass.setEndTime(LocalTime.of(16, 30));
         historyClass.setDaysOfWeek("Monday,Wednesday,Friday");
         historyClass.setSemester("Fall");
         historyClass.setAcademicYear("2024-2025");
@@ -0,0 +1,56 @@
+package com.school.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Two connection pools behind one DataSource: read-only transactions run on the replica pool,
+ * everything else (writes, migrations, schema creation, reads outside a transaction) on the
+ * primary. Both pools default to spring.datasource; point school.datasource.replica.jdbc-url
+ * at a replica to move reads off the primary database.
+ */
+@Configuration
+public class DataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("school.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadOnlyRoutingDataSource.Route.PRIMARY, primary,
+                ReadOnlyRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        // The transaction manager takes a connection before it marks the transaction read-only;
+        // the proxy defers the real checkout to the first statement, when the route is known
+        // the counter sits on top so that every statement on the request thread is counted, not only Hibernate's
+        return new SqlCountingDataSource(new LazyConnectionDataSourceProxy(routing));
+    }
+}
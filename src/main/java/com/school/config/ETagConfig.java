@@ -0,0 +1,52 @@
+package com.school.config;
+
+import com.school.controller.CollectionETag;
+import com.school.controller.ETags;
+import com.school.service.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Answers conditional GETs of @CollectionETag endpoints from the in-memory collection stamps
+@Configuration
+public class ETagConfig implements WebMvcConfigurer {
+    
+    private final ResourceVersions versions;
+    
+    @Autowired
+    public ETagConfig(ResourceVersions versions) {
+        this.versions = versions;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (!(handler instanceof HandlerMethod method)
+                        || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+                    return true;
+                }
+                CollectionETag collections = method.getMethodAnnotation(CollectionETag.class);
+                if (collections == null) {
+                    return true;
+                }
+                // Taken before the handler reads anything, so the tag is never newer than the body
+                String etag = versions.collectionTag(collections.value());
+                // Weak: the bytes differ by Accept and Accept-Encoding, and Tomcat will not gzip under a strong tag
+                response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+                if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return false;
+                }
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.school.config;
+
+import com.school.service.ClassService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically checks the denormalized classes.enrolled_count against class_students
+ * and repairs any drift (e.g. rows written outside ClassService).
+ */
+@Component
+public class EnrollmentCountReconciler {
+    
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentCountReconciler.class);
+    
+    private final ClassService classService;
+    
+    @Autowired
+    public EnrollmentCountReconciler(ClassService classService) {
+        this.classService = classService;
+    }
+    
+    @Scheduled(cron = "${school.enrollment.reconcile-cron}")
+    public void reconcile() {
+        int fixed = classService.reconcileEnrolledCounts();
+        if (fixed > 0) {
+            log.warn("Corrected enrolled_count on {} class(es)", fixed);
+        }
+    }
+}
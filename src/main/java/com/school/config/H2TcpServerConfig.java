@@ -0,0 +1,49 @@
+package com.school.config;
+
+import org.h2.tools.Server;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * H2 TCP server for other processes reading this database, such as the reactive catalog
+ * module. A remote connection to the storage path shares the database this process has open,
+ * so the file stays under a single writer. Listens on localhost only.
+ * <p>
+ * Remote readers log in as the reader account, which may only SELECT from the PUBLIC schema
+ * (tables added by later migrations included). H2 ignores ACCESS_MODE_DATA=r on a database that
+ * is already open, so the read-only guarantee has to come from the account's rights.
+ */
+@Configuration
+@ConditionalOnProperty(name = "school.storage.tcp-server.enabled", havingValue = "true")
+public class H2TcpServerConfig {
+    
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public Server h2TcpServer(@Value("${school.storage.tcp-server.port}") int port, DataSource dataSource,
+                              @Value("${school.storage.tcp-server.reader.username}") String readerUsername,
+                              @Value("${school.storage.tcp-server.reader.password}") String readerPassword)
+            throws SQLException {
+        grantReadOnlyAccount(dataSource, readerUsername, readerPassword);
+        return Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifExists");
+    }
+    
+    // Creates the account on first start and resets its password to the configured one after that
+    private static void grantReadOnlyAccount(DataSource dataSource, String username, String password)
+            throws SQLException {
+        if (!username.matches("[A-Za-z][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid reader username: " + username);
+        }
+        String passwordLiteral = "'" + password.replace("'", "''") + "'";
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE USER IF NOT EXISTS " + username + " PASSWORD " + passwordLiteral);
+            statement.execute("ALTER USER " + username + " SET PASSWORD " + passwordLiteral);
+            statement.execute("GRANT SELECT ON SCHEMA PUBLIC TO " + username);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.school.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Records @Timed methods; every service class is annotated, so each public method gets a timer
+@Configuration
+public class MetricsConfig {
+    
+    public static final String SERVICE_TIMER = "school.service";
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
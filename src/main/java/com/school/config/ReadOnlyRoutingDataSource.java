@@ -0,0 +1,18 @@
+package com.school.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Picks the replica pool inside {@code @Transactional(readOnly = true)} and the primary pool
+ * otherwise. Only correct behind a LazyConnectionDataSourceProxy (see {@link DataSourceConfig}).
+ */
+class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+    
+    enum Route { PRIMARY, REPLICA }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,98 @@
+package com.school.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gives API reads a response buffer of school.http.response-buffer-bytes and ignores the flushes
+ * the message converters issue after writing, so a body that fits goes out in one write with a
+ * Content-Length (or through gzip in one pass) instead of as 8 KB chunks. Larger bodies are
+ * still streamed, a buffer at a time. Exports manage their own buffering and are left alone.
+ */
+@Component
+public class ResponseBufferFilter extends OncePerRequestFilter {
+    
+    private final int bufferBytes;
+    
+    public ResponseBufferFilter(@Value("${school.http.response-buffer-bytes}") int bufferBytes) {
+        this.bufferBytes = bufferBytes;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !"GET".equals(request.getMethod()) || !uri.startsWith("/api/") || uri.startsWith("/api/export/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.setBufferSize(bufferBytes);
+        // The body's format follows Accept (JSON, Smile or CBOR), so caches must key on it too
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        chain.doFilter(request, new BufferedResponse(response));
+    }
+    
+    // The container commits when its buffer fills or the request ends, not when asked to flush
+    private static class BufferedResponse extends HttpServletResponseWrapper {
+    
+        private ServletOutputStream stream;
+    
+        BufferedResponse(HttpServletResponse response) {
+            super(response);
+        }
+    
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                    }
+    
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                    }
+    
+                    @Override
+                    public void flush() {
+                    }
+    
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+    
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+    
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    
+        @Override
+        public void flushBuffer() {
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.school.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Response serialization: Blackbird replaces Jackson's reflective getter calls with generated
+ * lambdas, and every endpoint answers {@code Accept: application/x-jackson-smile} and
+ * {@code application/cbor} as well as JSON. Buffering is {@link ResponseBufferFilter}'s and
+ * gzip is Tomcat's (server.compression).
+ */
+@Configuration
+public class SerializationConfig implements WebMvcConfigurer {
+    
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+    
+    @Autowired
+    public SerializationConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+    
+    // Registered with the application ObjectMapper by Boot, and so with the binary ones below
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // After JSON, which stays the answer to */* and to no Accept header at all
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                builders.getObject().factory(new SmileFactory()).build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                builders.getObject().factory(new CBORFactory()).build()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.school.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Records every statement executed through the application DataSource in the current
+ * {@link SqlStatementStats}, whoever issues it: Hibernate, JdbcTemplate batches and queries, or
+ * plain JDBC. Each execute call counts once, so a JDBC batch is one statement however many rows
+ * it carries; the time spent inside the call is added to the JDBC time.
+ */
+public class SqlCountingDataSource extends DelegatingDataSource {
+    
+    public SqlCountingDataSource(DataSource target) {
+        super(target);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+    
+    private static Connection counting(Connection target) {
+        return (Connection) proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement and prepareCall carry their SQL; createStatement passes it to execute
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return counting(statement, method.getReturnType(), sql);
+            }
+            return result;
+        });
+    }
+    
+    private static Statement counting(Statement target, Class<?> type, String prepared) {
+        String[] batched = new String[1];
+        return (Statement) proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && batched[0] == null) {
+                batched[0] = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats == null) {
+                return invoke(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : prepared != null ? prepared : batched[0];
+            if (name.endsWith("Batch")) {
+                batched[0] = null;
+            }
+            stats.record(sql);
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                stats.addJdbcTime(System.nanoTime() - start);
+            }
+        });
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static Object proxy(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
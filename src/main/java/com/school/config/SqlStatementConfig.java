@@ -0,0 +1,32 @@
+package com.school.config;
+
+import com.school.controller.StatementBudget;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Hands each endpoint's budget to the per-request SQL counters (see SqlCountingDataSource)
+@Configuration
+public class SqlStatementConfig implements WebMvcConfigurer {
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                SqlStatementStats stats = SqlStatementStats.current();
+                if (stats != null && handler instanceof HandlerMethod method) {
+                    StatementBudget budget = method.getMethodAnnotation(StatementBudget.class);
+                    if (budget != null) {
+                        stats.setBudget(budget.value());
+                    }
+                }
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.school.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Scopes {@link SqlStatementStats} to each HTTP request and reports the statement count and
+ * JDBC time in the {@code X-SQL-Statements} and {@code X-SQL-Time-Ms} headers and a log line.
+ * Statements repeated within one request are logged as a likely N+1.
+ */
+@Component
+public class SqlStatementFilter extends OncePerRequestFilter {
+    
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String JDBC_TIME_HEADER = "X-SQL-Time-Ms";
+    
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+    
+    // The same statement this many times in one request is almost always a lazy load in a loop
+    private static final int REPEAT_THRESHOLD = 5;
+    
+    private final boolean enforceBudget;
+    
+    public SqlStatementFilter(@Value("${school.sql.enforce-budget:false}") boolean enforceBudget) {
+        this.enforceBudget = enforceBudget;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.begin();
+        StatsResponse wrapped = new StatsResponse(response, stats);
+        try {
+            chain.doFilter(request, wrapped);
+            // Body-less responses that were never flushed still get the headers and the check
+            wrapped.beforeCommit();
+        } finally {
+            SqlStatementStats.end();
+            report(request, stats);
+        }
+    }
+    
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        if (stats.isOverBudget()) {
+            log.warn("{}: {} SQL statements, over budget of {} ({} ms JDBC)", endpoint, stats.getCount(),
+                    stats.getBudget(), String.format("%.2f", stats.getJdbcMillis()));
+        } else if (log.isDebugEnabled()) {
+            log.debug("{}: {} SQL statements ({} ms JDBC)", endpoint, stats.getCount(),
+                    String.format("%.2f", stats.getJdbcMillis()));
+        }
+        for (Map.Entry<String, Integer> statement : stats.getStatements().entrySet()) {
+            if (statement.getValue() >= REPEAT_THRESHOLD) {
+                log.warn("{}: possible N+1, statement ran {} times: {}", endpoint, statement.getValue(),
+                        statement.getKey());
+            }
+        }
+    }
+    
+    // Adds the headers just before the response is committed, while they can still be set
+    private class StatsResponse extends HttpServletResponseWrapper {
+        
+        private final SqlStatementStats stats;
+        private boolean committing;
+        
+        StatsResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+        
+        void beforeCommit() {
+            if (committing || isCommitted()) {
+                return;
+            }
+            committing = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.getCount()));
+            setHeader(JDBC_TIME_HEADER, String.format("%.2f", stats.getJdbcMillis()));
+            if (enforceBudget && stats.isOverBudget()) {
+                throw new StatementBudgetExceededException("Issued " + stats.getCount()
+                        + " SQL statements, budget is " + stats.getBudget());
+            }
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            beforeCommit();
+            return super.getOutputStream();
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            beforeCommit();
+            return super.getWriter();
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            beforeCommit();
+            super.flushBuffer();
+        }
+        
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            beforeCommit();
+            super.sendError(sc, msg);
+        }
+        
+        @Override
+        public void sendError(int sc) throws IOException {
+            beforeCommit();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.school.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statements and JDBC time recorded for the current unit of work (normally one HTTP
+ * request), bound to the calling thread between {@link #begin()} and {@link #end()}.
+ */
+public final class SqlStatementStats {
+    
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+    
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int count;
+    private long jdbcNanos;
+    private Integer budget;
+    
+    private SqlStatementStats() {}
+    
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+    
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+    
+    public static void end() {
+        CURRENT.remove();
+    }
+    
+    void record(String sql) {
+        count++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+    
+    void addJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public double getJdbcMillis() {
+        return jdbcNanos / 1_000_000.0;
+    }
+    
+    /** Each distinct SQL string with the number of times it was executed. */
+    public Map<String, Integer> getStatements() {
+        return statements;
+    }
+    
+    public Integer getBudget() {
+        return budget;
+    }
+    
+    public void setBudget(Integer budget) {
+        this.budget = budget;
+    }
+    
+    public boolean isOverBudget() {
+        return budget != null && count > budget;
+    }
+}
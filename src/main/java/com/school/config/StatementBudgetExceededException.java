@@ -0,0 +1,8 @@
+package com.school.config;
+
+public class StatementBudgetExceededException extends RuntimeException {
+    
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,238 @@
+package com.school.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes a large, reproducible dataset straight through JDBC batches (one transaction
+ * per batch), bypassing the services' per-row existence checks. Used by the
+ * synthetic-data profile for load testing and by the benchmark module.
+ */
+@Component
+public class SyntheticDataGenerator {
+    
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    
+    public static final String EMAIL_DOMAIN = "@synthetic.school";
+    
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Moore"};
+    private static final String[] DAYS = {"Monday,Wednesday,Friday", "Tuesday,Thursday", "Monday,Wednesday",
+            "Tuesday,Friday"};
+    private static final String[] SEMESTERS = {"Fall", "Spring"};
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    public static String studentEmail(int i) {
+        return "student" + i + EMAIL_DOMAIN;
+    }
+    
+    public static String teacherEmail(int i) {
+        return "teacher" + i + EMAIL_DOMAIN;
+    }
+    
+    public static String subjectName(int i) {
+        return "Synthetic Subject " + i;
+    }
+    
+    public boolean hasSyntheticData() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM teachers WHERE email = ?)", Boolean.class, teacherEmail(0)));
+    }
+    
+    /**
+     * Generates the dataset and returns the total number of rows written.
+     */
+    public long generate(SyntheticDataProperties props) {
+        Random random = new Random(props.getSeed());
+        int subjects = props.scaled(props.getSubjects());
+        int teachers = props.scaled(props.getTeachers());
+        int students = props.scaled(props.getStudents());
+        int classes = props.scaled(props.getClasses());
+        long started = System.nanoTime();
+        
+        insert("subjects", "INSERT INTO subjects (name, description, credits) VALUES (?, ?, ?)",
+                subjects, props.getBatchSize(), (ps, i) -> {
+                    ps.setString(1, subjectName(i));
+                    ps.setString(2, "Generated subject " + i);
+                    ps.setInt(3, 1 + random.nextInt(5));
+                });
+        long[] subjectIds = ids("subjects", subjects);
+        
+        insert("teachers", "INSERT INTO teachers (first_name, last_name, email, phone, date_of_birth, hire_date, "
+                + "specialization, salary) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                teachers, props.getBatchSize(), (ps, i) -> {
+                    ps.setString(1, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                    ps.setString(2, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                    ps.setString(3, teacherEmail(i));
+                    ps.setString(4, null);
+                    ps.setDate(5, Date.valueOf(LocalDate.of(1960 + random.nextInt(35), 1 + random.nextInt(12), 1)));
+                    ps.setDate(6, Date.valueOf(LocalDate.of(2000 + random.nextInt(25), 9, 1)));
+                    ps.setString(7, subjectName(random.nextInt(subjects)));
+                    ps.setDouble(8, 40_000 + random.nextInt(60_000));
+                });
+        long[] teacherIds = ids("teachers", teachers);
+        
+        insert("students", "INSERT INTO students (first_name, last_name, email, phone, date_of_birth, "
+                + "enrollment_date, address, grade_level, gpa) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                students, props.getBatchSize(), (ps, i) -> {
+                    double gpa = clip(props.getGpaMean() + random.nextGaussian() * props.getGpaStddev(), 0.0, 4.0);
+                    ps.setString(1, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                    ps.setString(2, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                    ps.setString(3, studentEmail(i));
+                    ps.setString(4, null);
+                    ps.setDate(5, Date.valueOf(LocalDate.of(2005 + random.nextInt(6), 1 + random.nextInt(12), 1)));
+                    ps.setDate(6, Date.valueOf(LocalDate.of(2019 + random.nextInt(6), 9, 1)));
+                    ps.setString(7, null);
+                    ps.setInt(8, 9 + random.nextInt(4));
+                    ps.setDouble(9, Math.round(gpa * 100) / 100.0);
+                });
+        long[] studentIds = ids("students", students);
+        
+        // Capacities and roster sizes are drawn up front so enrolled_count is written with the class
+        int[] capacity = new int[classes];
+        int[] enrolled = new int[classes];
+        for (int c = 0; c < classes; c++) {
+            capacity[c] = (int) Math.round(clip(props.getClassSizeMean() + random.nextGaussian() * props.getClassSizeStddev(),
+                    props.getClassSizeMin(), props.getClassSizeMax()));
+            double fill = clip(props.getFillRatio() + random.nextGaussian() * 0.1, 0.0, 1.0);
+            enrolled[c] = Math.min(students, (int) Math.round(capacity[c] * fill));
+        }
+        insert("classes", "INSERT INTO classes (name, description, room_number, capacity, start_time, end_time, "
+                + "days_of_week, semester, academic_year, enrolled_count, seats_remaining, subject_id, teacher_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                classes, props.getBatchSize(), (ps, c) -> {
+                    int startHour = 8 + random.nextInt(8);
+                    ps.setString(1, "Section " + c);
+                    ps.setString(2, null);
+                    ps.setString(3, "Room " + (100 + random.nextInt(400)));
+                    ps.setInt(4, capacity[c]);
+                    ps.setTime(5, Time.valueOf(LocalTime.of(startHour, random.nextBoolean() ? 0 : 30)));
+                    ps.setTime(6, Time.valueOf(LocalTime.of(startHour + 1, random.nextBoolean() ? 0 : 30)));
+                    ps.setString(7, DAYS[random.nextInt(DAYS.length)]);
+                    ps.setString(8, SEMESTERS[random.nextInt(SEMESTERS.length)]);
+                    ps.setString(9, "2024-2025");
+                    ps.setInt(10, enrolled[c]);
+                    ps.setInt(11, capacity[c] - enrolled[c]);
+                    ps.setLong(12, subjectIds[random.nextInt(subjectIds.length)]);
+                    ps.setLong(13, teacherIds[random.nextInt(teacherIds.length)]);
+                });
+        long[] classIds = ids("classes", classes);
+        
+        long enrollments = insertEnrollments(classIds, enrolled, studentIds, random, props.getBatchSize());
+        
+        long rows = subjects + teachers + students + classes + enrollments;
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Synthetic dataset: {} rows in {} s ({} rows/s)", rows, String.format("%.1f", seconds),
+                Math.round(rows / seconds));
+        return rows;
+    }
+    
+    // Each roster walks the student array from a random start with a fixed stride,
+    // which yields distinct students without tracking who is already in the class
+    private long insertEnrollments(long[] classIds, int[] enrolled, long[] studentIds, Random random, int batchSize) {
+        long started = System.nanoTime();
+        long total = 0;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        int n = studentIds.length;
+        for (int c = 0; c < classIds.length; c++) {
+            int size = enrolled[c];
+            if (size == 0) {
+                continue;
+            }
+            int position = random.nextInt(n);
+            int stride = 1 + random.nextInt(Math.max(1, n / size));
+            for (int k = 0; k < size; k++) {
+                batch.add(new Object[] {classIds[c], studentIds[(int) ((position + (long) k * stride) % n)]});
+                if (batch.size() == batchSize) {
+                    flushEnrollments(batch);
+                    total += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        flushEnrollments(batch);
+        total += batch.size();
+        report("class_students", total, started);
+        return total;
+    }
+    
+    private void flushEnrollments(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO class_students (class_id, student_id) VALUES (?, ?)", batch));
+        }
+    }
+    
+    private void insert(String table, String sql, int count, int batchSize, RowWriter writer) {
+        long started = System.nanoTime();
+        for (int offset = 0; offset < count; offset += batchSize) {
+            int first = offset;
+            int size = Math.min(batchSize, count - offset);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql,
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            writer.write(ps, first + i);
+                        }
+                        
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    }));
+        }
+        report(table, count, started);
+    }
+    
+    // IDs of the rows just inserted (identity values are assigned in insert order)
+    private long[] ids(String table, int count) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " ORDER BY id DESC LIMIT ?", Long.class, count);
+        long[] result = new long[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(result.length - 1 - i);
+        }
+        return result;
+    }
+    
+    private static void report(String table, long rows, long startedNanos) {
+        double seconds = Math.max((System.nanoTime() - startedNanos) / 1e9, 1e-9);
+        log.info("Inserted {} {} rows in {} s ({} rows/s)", rows, table, String.format("%.2f", seconds),
+                Math.round(rows / seconds));
+    }
+    
+    private static double clip(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+    
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, int index) throws SQLException;
+    }
+}
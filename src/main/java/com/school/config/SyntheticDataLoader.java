@@ -0,0 +1,35 @@
+package com.school.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("synthetic-data")
+@EnableConfigurationProperties(SyntheticDataProperties.class)
+public class SyntheticDataLoader implements CommandLineRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataLoader.class);
+    
+    private final SyntheticDataGenerator generator;
+    private final SyntheticDataProperties properties;
+    
+    @Autowired
+    public SyntheticDataLoader(SyntheticDataGenerator generator, SyntheticDataProperties properties) {
+        this.generator = generator;
+        this.properties = properties;
+    }
+    
+    @Override
+    public void run(String... args) {
+        if (generator.hasSyntheticData()) {
+            log.info("Synthetic data already present, skipping generation");
+            return;
+        }
+        generator.generate(properties);
+    }
+}
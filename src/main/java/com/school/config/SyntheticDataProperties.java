@@ -0,0 +1,147 @@
+package com.school.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Size and shape of the generated dataset. Row counts are multiplied by {@code scale};
+ * class capacities and GPAs are drawn from clipped normal distributions.
+ */
+@ConfigurationProperties(prefix = "school.synthetic-data")
+public class SyntheticDataProperties {
+    
+    private double scale = 1.0;
+    private long seed = 42;
+    
+    private int students = 100_000;
+    private int teachers = 5_000;
+    private int subjects = 200;
+    private int classes = 20_000;
+    
+    private int classSizeMin = 10;
+    private int classSizeMax = 40;
+    private double classSizeMean = 25;
+    private double classSizeStddev = 6;
+    // Average fraction of each class's capacity that gets enrolled
+    private double fillRatio = 0.85;
+    
+    private double gpaMean = 3.0;
+    private double gpaStddev = 0.5;
+    
+    private int batchSize = 1000;
+    
+    public int scaled(int count) {
+        return Math.max(1, (int) Math.round(count * scale));
+    }
+    
+    public double getScale() {
+        return scale;
+    }
+    
+    public void setScale(double scale) {
+        this.scale = scale;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    public int getStudents() {
+        return students;
+    }
+    
+    public void setStudents(int students) {
+        this.students = students;
+    }
+    
+    public int getTeachers() {
+        return teachers;
+    }
+    
+    public void setTeachers(int teachers) {
+        this.teachers = teachers;
+    }
+    
+    public int getSubjects() {
+        return subjects;
+    }
+    
+    public void setSubjects(int subjects) {
+        this.subjects = subjects;
+    }
+    
+    public int getClasses() {
+        return classes;
+    }
+    
+    public void setClasses(int classes) {
+        this.classes = classes;
+    }
+    
+    public int getClassSizeMin() {
+        return classSizeMin;
+    }
+    
+    public void setClassSizeMin(int classSizeMin) {
+        this.classSizeMin = classSizeMin;
+    }
+    
+    public int getClassSizeMax() {
+        return classSizeMax;
+    }
+    
+    public void setClassSizeMax(int classSizeMax) {
+        this.classSizeMax = classSizeMax;
+    }
+    
+    public double getClassSizeMean() {
+        return classSizeMean;
+    }
+    
+    public void setClassSizeMean(double classSizeMean) {
+        this.classSizeMean = classSizeMean;
+    }
+    
+    public double getClassSizeStddev() {
+        return classSizeStddev;
+    }
+    
+    public void setClassSizeStddev(double classSizeStddev) {
+        this.classSizeStddev = classSizeStddev;
+    }
+    
+    public double getFillRatio() {
+        return fillRatio;
+    }
+    
+    public void setFillRatio(double fillRatio) {
+        this.fillRatio = fillRatio;
+    }
+    
+    public double getGpaMean() {
+        return gpaMean;
+    }
+    
+    public void setGpaMean(double gpaMean) {
+        this.gpaMean = gpaMean;
+    }
+    
+    public double getGpaStddev() {
+        return gpaStddev;
+    }
+    
+    public void setGpaStddev(double gpaStddev) {
+        this.gpaStddev = gpaStddev;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
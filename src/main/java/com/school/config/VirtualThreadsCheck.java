@@ -0,0 +1,26 @@
+package com.school.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Spring Boot silently ignores spring.threads.virtual.enabled below Java 21
+@Component
+@Profile("virtual-threads")
+public class VirtualThreadsCheck {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsCheck.class);
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkRuntime() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("virtual-threads profile is active but the runtime is Java {}; "
+                    + "requests are served by platform threads", Runtime.version().feature());
+        } else {
+            log.info("Serving requests on virtual threads");
+        }
+    }
+}
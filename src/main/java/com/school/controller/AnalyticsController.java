@@ -0,0 +1,64 @@
+package com.school.controller;
+
+import com.school.dto.AnalyticsReport;
+import com.school.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics", description = "GPA and salary distributions from a periodically refreshed snapshot")
+public class AnalyticsController {
+    
+    private final AnalyticsService analyticsService;
+    
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+    
+    @GetMapping("/students/gpa")
+    @Operation(summary = "Get GPA distribution",
+               description = "Count, mean, min, max, percentiles and histogram of student GPA, overall or per group")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved GPA distribution"),
+        @ApiResponse(responseCode = "400", description = "Unknown grouping or invalid bucket width")
+    })
+    @StatementBudget(0)
+    public ResponseEntity<AnalyticsReport> getGpaDistribution(
+            @Parameter(description = "none, gradeLevel or subject") @RequestParam(defaultValue = "none") String groupBy,
+            @Parameter(description = "Histogram bin width in GPA points") @RequestParam(defaultValue = "0.5") double bucketWidth) {
+        try {
+            return ResponseEntity.ok(analyticsService.getGpaDistribution(groupBy, bucketWidth));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/teachers/salary")
+    @Operation(summary = "Get salary distribution",
+               description = "Count, mean, min, max, percentiles and histogram of teacher salary, overall or per group")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved salary distribution"),
+        @ApiResponse(responseCode = "400", description = "Unknown grouping or invalid bucket width")
+    })
+    @StatementBudget(0)
+    public ResponseEntity<AnalyticsReport> getSalaryDistribution(
+            @Parameter(description = "none, specialization or subject") @RequestParam(defaultValue = "none") String groupBy,
+            @Parameter(description = "Histogram bin width") @RequestParam(defaultValue = "10000") double bucketWidth) {
+        try {
+            return ResponseEntity.ok(analyticsService.getSalaryDistribution(groupBy, bucketWidth));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
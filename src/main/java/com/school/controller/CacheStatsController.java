@@ -0,0 +1,47 @@
+package com.school.controller;
+
+import com.school.dto.CacheRegionStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache Statistics", description = "Second-level cache hit/miss counters")
+public class CacheStatsController {
+    
+    private final Statistics statistics;
+    
+    @Autowired
+    public CacheStatsController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Get cache statistics", description = "Hit, miss and put counts per second-level cache region")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics")
+    })
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        List<CacheRegionStats> regions = new ArrayList<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+            regions.add(new CacheRegionStats(name, region.getHitCount(), region.getMissCount(),
+                    region.getPutCount()));
+        }
+        return ResponseEntity.ok(regions);
+    }
+}
@@ -0,0 +1,62 @@
+package com.school.controller;
+
+import com.school.dto.ChangeEvent;
+import com.school.service.ChangeLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/changes")
+@Tag(name = "Change Log", description = "Committed creates, updates, deletes and enrollments, for incremental sync")
+public class ChangeController {
+    
+    static final String NEXT_OFFSET = "X-Next-Offset";
+    static final int DEFAULT_LIMIT = 1000;
+    static final int MAX_LIMIT = 10000;
+    
+    private final ChangeLog changeLog;
+    
+    @Autowired
+    public ChangeController(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+    
+    @GetMapping
+    @Operation(summary = "Read the change log",
+            description = "Events with an offset of at least `since`, oldest first. Pass X-Next-Offset back as `since` to continue; "
+                    + "compaction drops events that a later one for the same entity or enrollment supersedes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved changes"),
+        @ApiResponse(responseCode = "400", description = "Invalid offset or limit")
+    })
+    @StatementBudget(0)
+    public ResponseEntity<List<ChangeEvent>> getChanges(
+            @Parameter(description = "First offset to return (0 for the whole log)") @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of events to return (1-" + MAX_LIMIT + ")") @RequestParam(required = false) Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (since < 0 || size < 1 || size > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<ChangeEvent> events = changeLog.read(since, size);
+        // With nothing new, an offset past the end (e.g. from before a reset) is pulled back to the end
+        long next = events.isEmpty()
+                ? Math.min(since, changeLog.getNextOffset())
+                : events.get(events.size() - 1).getOffset() + 1;
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(NEXT_OFFSET, String.valueOf(next));
+        headers.setAccessControlExposeHeaders(List.of(NEXT_OFFSET));
+        return ResponseEntity.ok().headers(headers).body(events);
+    }
+}
@@ -1,7 +1,16 @@
 package com.school.controller;
 
+import com.school.dto.ClassSummary;
+import com.school.dto.EnrollmentResult;
+import com.school.dto.WaitlistPosition;
 import com.school.entity.Class;
+import com.school.repository.KeysetPage;
 import com.school.service.ClassService;
+import com.school.service.ResourceVersions;
+import com.school.service.ResourceVersions.Resource;
+import com.school.service.TimetableConflictException;
+import com.school.service.VersionMismatchException;
+import com.school.service.WaitlistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,7 +19,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,11 +35,21 @@ import java.util.Optional;
 @Tag(name = "Class Management", description = "APIs for managing classes and enrollments")
 public class ClassController {
     
+    // The daysOfWeek grammar accepted by Schedule.of, for the create and update descriptions
+    private static final String SCHEDULE_RULES = " daysOfWeek lists day names or abbreviations of at least three "
+            + "letters separated by commas, spaces, '/', '&' or 'and' (\"Monday,Wednesday\", \"Mon and Wed\"), "
+            + "ranges (\"Mon-Fri\", \"Monday to Friday\") or letter codes M T W R F S U with Tu, Th, Sa, Su "
+            + "(\"MWF\", \"TTh\"). endTime must be after startTime. Anything else is refused with 400.";
+    
     private final ClassService classService;
+    private final ResourceVersions versions;
+    private final WaitlistService waitlistService;
     
     @Autowired
-    public ClassController(ClassService classService) {
+    public ClassController(ClassService classService, ResourceVersions versions, WaitlistService waitlistService) {
         this.classService = classService;
+        this.versions = versions;
+        this.waitlistService = waitlistService;
     }
     
     @GetMapping
@@ -35,110 +57,178 @@ public class ClassController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved classes",
                     content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = Class.class)))
+                    schema = @Schema(implementation = ClassSummary.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Class>> getAllClasses() {
-        List<Class> classes = classService.getAllClasses();
-        return ResponseEntity.ok(classes);
+    @CollectionETag(Resource.CLASSES)
+    @StatementBudget(2)
+    public ResponseEntity<List<ClassSummary>> getAllClasses(@ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<ClassSummary> classes = classService.getAllClasses(page.toRequest());
+            return KeysetResponses.ok(classes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get class by ID", description = "Retrieve a class by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved class"),
+        @ApiResponse(responseCode = "304", description = "Class unchanged since the If-None-Match ETag"),
         @ApiResponse(responseCode = "404", description = "Class not found")
     })
-    public ResponseEntity<Class> getClassById(
-            @Parameter(description = "ID of the class to retrieve") @PathVariable Long id) {
-        Optional<Class> classEntity = classService.getClassById(id);
-        return classEntity.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    @StatementBudget(1)
+    public ResponseEntity<ClassSummary> getClassById(
+            @Parameter(description = "ID of the class to retrieve") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.detail(versions, Resource.CLASSES, id, ifNoneMatch,
+                () -> classService.getClassSummaryById(id), ClassSummary::getVersion);
     }
     
     @GetMapping("/subject/{subjectId}")
     @Operation(summary = "Get classes by subject", description = "Retrieve classes by subject ID")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes"),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Class>> getClassesBySubject(
-            @Parameter(description = "Subject ID to filter by") @PathVariable Long subjectId) {
-        List<Class> classes = classService.getClassesBySubject(subjectId);
-        return ResponseEntity.ok(classes);
+    @CollectionETag({Resource.CLASSES, Resource.SUBJECTS})
+    @StatementBudget(3)
+    public ResponseEntity<List<ClassSummary>> getClassesBySubject(
+            @Parameter(description = "Subject ID to filter by") @PathVariable Long subjectId,
+            @ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<ClassSummary> classes = classService.getClassesBySubject(subjectId, page.toRequest());
+            return KeysetResponses.ok(classes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/teacher/{teacherId}")
     @Operation(summary = "Get classes by teacher", description = "Retrieve classes by teacher ID")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes"),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Class>> getClassesByTeacher(
-            @Parameter(description = "Teacher ID to filter by") @PathVariable Long teacherId) {
-        List<Class> classes = classService.getClassesByTeacher(teacherId);
-        return ResponseEntity.ok(classes);
+    @CollectionETag({Resource.CLASSES, Resource.TEACHERS})
+    @StatementBudget(3)
+    public ResponseEntity<List<ClassSummary>> getClassesByTeacher(
+            @Parameter(description = "Teacher ID to filter by") @PathVariable Long teacherId,
+            @ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<ClassSummary> classes = classService.getClassesByTeacher(teacherId, page.toRequest());
+            return KeysetResponses.ok(classes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/student/{studentId}")
     @Operation(summary = "Get classes by student", description = "Retrieve classes by student ID")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes"),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Class>> getClassesByStudent(
-            @Parameter(description = "Student ID to filter by") @PathVariable Long studentId) {
-        List<Class> classes = classService.getClassesByStudent(studentId);
-        return ResponseEntity.ok(classes);
+    @CollectionETag({Resource.CLASSES, Resource.STUDENTS})
+    @StatementBudget(2)
+    public ResponseEntity<List<ClassSummary>> getClassesByStudent(
+            @Parameter(description = "Student ID to filter by") @PathVariable Long studentId,
+            @ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<ClassSummary> classes = classService.getClassesByStudent(studentId, page.toRequest());
+            return KeysetResponses.ok(classes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/semester")
     @Operation(summary = "Get classes by semester and year", description = "Retrieve classes by semester and academic year")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved classes"),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Class>> getClassesBySemesterAndYear(
+    @CollectionETag(Resource.CLASSES)
+    @StatementBudget(2)
+    public ResponseEntity<List<ClassSummary>> getClassesBySemesterAndYear(
             @Parameter(description = "Semester") @RequestParam String semester,
-            @Parameter(description = "Academic year") @RequestParam String academicYear) {
-        List<Class> classes = classService.getClassesBySemesterAndYear(semester, academicYear);
-        return ResponseEntity.ok(classes);
+            @Parameter(description = "Academic year") @RequestParam String academicYear,
+            @ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<ClassSummary> classes = classService.getClassesBySemesterAndYear(semester, academicYear, page.toRequest());
+            return KeysetResponses.ok(classes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/available")
     @Operation(summary = "Get available classes", description = "Retrieve classes that have available capacity")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved available classes")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved available classes"),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Class>> getAvailableClasses() {
-        List<Class> classes = classService.getAvailableClasses();
-        return ResponseEntity.ok(classes);
+    @CollectionETag(Resource.CLASSES)
+    @StatementBudget(2)
+    public ResponseEntity<List<ClassSummary>> getAvailableClasses(@ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<ClassSummary> classes = classService.getAvailableClasses(page.toRequest());
+            return KeysetResponses.ok(classes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PostMapping
-    @Operation(summary = "Create a new class", description = "Create a new class")
+    @Operation(summary = "Create a new class", description = "Create a new class." + SCHEDULE_RULES)
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Class created successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data")
+        @ApiResponse(responseCode = "400", description = "Invalid input data, including an unreadable schedule"),
+        @ApiResponse(responseCode = "409", description = "Teacher or room already booked at that time")
     })
-    public ResponseEntity<Class> createClass(
+    @StatementBudget(3)
+    public ResponseEntity<ClassSummary> createClass(
             @Parameter(description = "Class object to create") @Valid @RequestBody Class classEntity) {
         try {
-            Class createdClass = classService.createClass(classEntity);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdClass);
+            ClassSummary createdClass = ClassSummary.from(classService.createClass(classEntity));
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(createdClass.getVersion())).body(createdClass);
+        } catch (TimetableConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @PutMapping("/{id}")
-    @Operation(summary = "Update a class", description = "Update an existing class")
+    @Operation(summary = "Update a class", description = "Update an existing class." + SCHEDULE_RULES
+            + " A stored schedule from before these rules that the request leaves unchanged is kept, unscheduled.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Class updated successfully"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not name the current version"),
         @ApiResponse(responseCode = "404", description = "Class not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data")
+        @ApiResponse(responseCode = "400", description = "Invalid input data, including an unreadable schedule "
+                + "or a capacity below the number of students already enrolled"),
+        @ApiResponse(responseCode = "409", description = "Teacher, room or an enrolled student already booked at that time, "
+                + "or changed concurrently by another request (no If-Match sent); retry")
     })
-    public ResponseEntity<Class> updateClass(
+    @StatementBudget(6)
+    public ResponseEntity<ClassSummary> updateClass(
             @Parameter(description = "ID of the class to update") @PathVariable Long id,
-            @Parameter(description = "Updated class object") @Valid @RequestBody Class classDetails) {
+            @Parameter(description = "Updated class object") @Valid @RequestBody Class classDetails,
+            @Parameter(description = "ETag of the version being changed; refused with 412 if it has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Class updatedClass = classService.updateClass(id, classDetails);
-            return ResponseEntity.ok(updatedClass);
+            classService.updateClass(id, classDetails, ETags.expectedVersion(ifMatch));
+            return classService.getClassSummaryById(id)
+                    .map(updated -> ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (VersionMismatchException | OptimisticLockingFailureException e) {
+            return ETags.concurrentChange(ifMatch);
+        } catch (TimetableConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -148,13 +238,20 @@ public class ClassController {
     @Operation(summary = "Delete a class", description = "Delete a class by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Class deleted successfully"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not name the current version"),
+        @ApiResponse(responseCode = "409", description = "Changed concurrently by another request (no If-Match sent); retry"),
         @ApiResponse(responseCode = "404", description = "Class not found")
     })
+    @StatementBudget(6)
     public ResponseEntity<Void> deleteClass(
-            @Parameter(description = "ID of the class to delete") @PathVariable Long id) {
+            @Parameter(description = "ID of the class to delete") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being changed; refused with 412 if it has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            classService.deleteClass(id);
+            classService.deleteClass(id, ETags.expectedVersion(ifMatch));
             return ResponseEntity.noContent().build();
+        } catch (VersionMismatchException | OptimisticLockingFailureException e) {
+            return ETags.concurrentChange(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -164,15 +261,38 @@ public class ClassController {
     @Operation(summary = "Enroll student in class", description = "Enroll a student in a specific class")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Student enrolled successfully"),
-        @ApiResponse(responseCode = "400", description = "Class is full or student already enrolled"),
-        @ApiResponse(responseCode = "404", description = "Class or student not found")
+        @ApiResponse(responseCode = "400", description = "Class is full (join its waitlist instead) or student already enrolled"),
+        @ApiResponse(responseCode = "404", description = "Class or student not found"),
+        @ApiResponse(responseCode = "409", description = "Student already has a class at that time")
     })
+    @StatementBudget(6)
     public ResponseEntity<Void> enrollStudent(
             @Parameter(description = "Class ID") @PathVariable Long classId,
             @Parameter(description = "Student ID") @PathVariable Long studentId) {
         try {
             classService.enrollStudent(classId, studentId);
             return ResponseEntity.ok().build();
+        } catch (TimetableConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/{classId}/enrollments")
+    @Operation(summary = "Enroll students in class", description = "Enroll a list of students in a specific class in one transaction. "
+            + "While the class has a waitlist, its free seats go to the waiting students and everyone else gets OVER_CAPACITY")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-student enrollment results"),
+        @ApiResponse(responseCode = "400", description = "Class not found or too many students in one request")
+    })
+    @StatementBudget(6)
+    public ResponseEntity<List<EnrollmentResult>> enrollStudents(
+            @Parameter(description = "Class ID") @PathVariable Long classId,
+            @Parameter(description = "IDs of the students to enroll") @RequestBody List<Long> studentIds) {
+        try {
+            List<EnrollmentResult> results = classService.enrollStudents(classId, studentIds);
+            return ResponseEntity.ok(results);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -185,6 +305,7 @@ public class ClassController {
         @ApiResponse(responseCode = "400", description = "Student not enrolled in class"),
         @ApiResponse(responseCode = "404", description = "Class or student not found")
     })
+    @StatementBudget(4)
     public ResponseEntity<Void> removeStudent(
             @Parameter(description = "Class ID") @PathVariable Long classId,
             @Parameter(description = "Student ID") @PathVariable Long studentId) {
@@ -195,4 +316,54 @@ public class ClassController {
             return ResponseEntity.badRequest().build();
         }
     }
+    
+    @PostMapping("/{classId}/waitlist/{studentId}")
+    @Operation(summary = "Join class waitlist",
+               description = "Queue a student for a seat; seats that free up are filled in joining order in the background")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Position on the waitlist (unchanged if the student was already on it)"),
+        @ApiResponse(responseCode = "400", description = "Class or student not found, or student already enrolled")
+    })
+    @StatementBudget(6)
+    public ResponseEntity<WaitlistPosition> joinWaitlist(
+            @Parameter(description = "Class ID") @PathVariable Long classId,
+            @Parameter(description = "Student ID") @PathVariable Long studentId) {
+        try {
+            return ResponseEntity.ok(waitlistService.join(classId, studentId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{classId}/waitlist/{studentId}")
+    @Operation(summary = "Get waitlist position",
+               description = "Poll a student's place on the waitlist; ENROLLED once a seat has been given to them")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Position on the waitlist, or ENROLLED"),
+        @ApiResponse(responseCode = "404", description = "Student is neither waiting for nor enrolled in the class")
+    })
+    @StatementBudget(2)
+    public ResponseEntity<WaitlistPosition> getWaitlistPosition(
+            @Parameter(description = "Class ID") @PathVariable Long classId,
+            @Parameter(description = "Student ID") @PathVariable Long studentId) {
+        return ResponseEntity.of(waitlistService.getPosition(classId, studentId));
+    }
+    
+    @DeleteMapping("/{classId}/waitlist/{studentId}")
+    @Operation(summary = "Leave class waitlist", description = "Remove a student from a class's waitlist")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Student removed from the waitlist"),
+        @ApiResponse(responseCode = "404", description = "Student is not on the waitlist")
+    })
+    @StatementBudget(1)
+    public ResponseEntity<Void> leaveWaitlist(
+            @Parameter(description = "Class ID") @PathVariable Long classId,
+            @Parameter(description = "Student ID") @PathVariable Long studentId) {
+        try {
+            waitlistService.leave(classId, studentId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 } 
\ No newline at end of file
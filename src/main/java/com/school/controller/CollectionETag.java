@@ -0,0 +1,20 @@
+package com.school.controller;
+
+import com.school.service.ResourceVersions.Resource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose response depends only on the given collections. It is served
+ * with their stamps as a weak ETag, since the bytes vary by Accept and Accept-Encoding, and a
+ * matching If-None-Match gets 304 before the handler (and the database) is reached.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CollectionETag {
+    
+    Resource[] value();
+}
@@ -0,0 +1,166 @@
+package com.school.controller;
+
+import com.school.service.ResourceVersions;
+import com.school.service.ResourceVersions.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Conditional request handling. Detail responses carry the entity's {@code @Version} as a strong
+ * ETag, which {@code If-Match} on PUT and DELETE must repeat; list responses carry the weak
+ * collection stamps set by {@link CollectionETag}.
+ *
+ * <p>A strong tag names exact bytes, and one version is served as JSON, Smile or CBOR, so the
+ * tag ends in the representation: {@code "7"} for JSON, {@code "7-smile"}, {@code "7-cbor"}.
+ * Tomcat does not gzip under a strong tag, so Accept-Encoding does not change the bytes.
+ * {@code If-Match} only checks the version, whichever representation its tag came from.
+ */
+public final class ETags {
+    
+    // Never equal to a stored version, for If-Match values that are not one of our tags
+    public static final long NO_MATCH = -1;
+    
+    // Tag suffix per representation, in the order SerializationConfig registers the converters
+    private static final Map<MediaType, String> REPRESENTATIONS = new LinkedHashMap<>();
+    static {
+        REPRESENTATIONS.put(MediaType.APPLICATION_JSON, "");
+        REPRESENTATIONS.put(new MediaType("application", "x-jackson-smile"), "-smile");
+        REPRESENTATIONS.put(MediaType.APPLICATION_CBOR, "-cbor");
+    }
+    
+    private ETags() {}
+    
+    /** The tag of {@code version} in the representation the current request negotiates. */
+    public static String of(Long version) {
+        String accept = null;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request) {
+            accept = request.getRequest().getHeader(HttpHeaders.ACCEPT);
+        }
+        return "\"" + version + representation(accept) + "\"";
+    }
+    
+    /**
+     * The tag suffix of the representation Spring MVC picks for {@code accept}: the first
+     * converter compatible with the most preferred media type (highest q, then most specific).
+     * JSON for no Accept header, and for one that nothing matches, which is refused anyway.
+     */
+    static String representation(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(MediaType::isWildcardType)
+                .thenComparing(MediaType::isWildcardSubtype));
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> representation : REPRESENTATIONS.entrySet()) {
+                if (type.isCompatibleWith(representation.getKey())) {
+                    return representation.getValue();
+                }
+            }
+        }
+        return "";
+    }
+    
+    /** If-None-Match uses the weak comparison: a W/ prefix is ignored and * matches anything. */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * The version an If-Match header requires, or null when there is no precondition ("*" only
+     * asks that the resource exists, which the update checks anyway). Weak or foreign tags can
+     * never match, as If-Match uses the strong comparison.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return NO_MATCH;
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        for (String suffix : REPRESENTATIONS.values()) {
+            if (!suffix.isEmpty() && value.endsWith(suffix)) {
+                value = value.substring(0, value.length() - suffix.length());
+                break;
+            }
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return NO_MATCH;
+        }
+    }
+    
+    /** GET of one entity: 304 straight from the remembered version when possible, otherwise load it. */
+    static <T> ResponseEntity<T> detail(ResourceVersions versions, Resource resource, Long id, String ifNoneMatch,
+                                        Supplier<Optional<T>> loader, Function<T, Long> versionOf) {
+        Long known = versions.knownVersion(resource, id);
+        if (known != null && matches(ifNoneMatch, of(known))) {
+            return notModified(known);
+        }
+        long generation = versions.generation(resource);
+        Optional<T> entity = loader.get();
+        if (entity.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Long version = versionOf.apply(entity.get());
+        versions.loaded(resource, id, version, generation);
+        if (matches(ifNoneMatch, of(version))) {
+            return notModified(version);
+        }
+        return ResponseEntity.ok().eTag(of(version)).body(entity.get());
+    }
+    
+    /**
+     * A PUT or DELETE that lost to a concurrent write: 412 if the client sent If-Match, else 409,
+     * since an unconditional request has no precondition that could fail.
+     */
+    static <T> ResponseEntity<T> concurrentChange(String ifMatch) {
+        HttpStatus status = expectedVersion(ifMatch) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).build();
+    }
+    
+    private static <T> ResponseEntity<T> notModified(Long version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(of(version)).build();
+    }
+}
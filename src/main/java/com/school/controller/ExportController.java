@@ -0,0 +1,115 @@
+package com.school.controller;
+
+import com.school.service.ExportService;
+import com.school.service.ExportService.Dataset;
+import com.school.service.ExportService.Format;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Export", description = "Streaming NDJSON and CSV exports of whole tables")
+public class ExportController {
+    
+    private final ExportService exportService;
+    
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+    
+    @GetMapping("/{dataset}")
+    @Operation(summary = "Export a dataset",
+               description = "Streams every student, teacher, class or enrollment as NDJSON or CSV, "
+                       + "gzip-compressed when the client accepts it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Unknown dataset or format")
+    })
+    // No statement budget: the queries run on the async thread that writes the body, after the count is reported
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "students, teachers, classes or enrollments") @PathVariable String dataset,
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Dataset d;
+        Format f;
+        try {
+            d = Dataset.parse(dataset);
+            f = Format.parse(format);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(d, f, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(d, f, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(f.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(d.name().toLowerCase() + "." + f.getExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    /**
+     * Whether Accept-Encoding allows gzip: listed (or covered by "*") with a non-zero q-value.
+     * An explicit "gzip;q=0" refuses it even when "*" is also listed.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = q;
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+}
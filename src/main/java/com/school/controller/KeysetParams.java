@@ -0,0 +1,58 @@
+package com.school.controller;
+
+import com.school.repository.KeysetRequest;
+import io.swagger.v3.oas.annotations.Parameter;
+
+/**
+ * Query parameters shared by every list endpoint: {@code ?after=&limit=&sort=&direction=}.
+ */
+public class KeysetParams {
+
+    @Parameter(description = "Return rows after the row with this ID (cursor from X-Next-Cursor)")
+    private Long after;
+
+    @Parameter(description = "Maximum number of rows to return (1-" + KeysetRequest.MAX_LIMIT + ")")
+    private Integer limit;
+
+    @Parameter(description = "Sort property (id by default)")
+    private String sort;
+
+    @Parameter(description = "Sort direction: asc or desc")
+    private String direction;
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public void setAfter(Long after) {
+        this.after = after;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public KeysetRequest toRequest() {
+        return KeysetRequest.of(after, limit, sort, direction);
+    }
+}
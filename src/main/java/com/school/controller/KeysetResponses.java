@@ -0,0 +1,41 @@
+package com.school.controller;
+
+import com.school.repository.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Builds list responses: the page items as the body, the total row count in
+ * {@code X-Total-Count}, and the next cursor in {@code X-Next-Cursor} plus a {@code Link rel="next"}.
+ */
+final class KeysetResponses {
+    
+    static final String TOTAL_COUNT = "X-Total-Count";
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+    
+    private KeysetResponses() {}
+    
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page) {
+        return ok(page, "after");
+    }
+    
+    // For pages whose cursor is passed back under another parameter name (e.g. a search offset)
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page, String cursorParam) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TOTAL_COUNT, String.valueOf(page.getTotalCount()));
+        if (page.hasNext()) {
+            headers.set(NEXT_CURSOR, String.valueOf(page.getNextCursor()));
+            // The request's query string is already percent-encoded, so it must not be encoded again
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam(cursorParam, page.getNextCursor())
+                    .build(true)
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        headers.setAccessControlExposeHeaders(List.of(TOTAL_COUNT, NEXT_CURSOR, HttpHeaders.LINK, HttpHeaders.ETAG));
+        return ResponseEntity.ok().headers(headers).body(page.getItems());
+    }
+}
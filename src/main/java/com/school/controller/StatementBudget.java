@@ -0,0 +1,18 @@
+package com.school.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements an endpoint may issue per request, counted at the JDBC
+ * connection (Hibernate, JdbcTemplate and plain JDBC alike; a batch counts once). Requests over
+ * budget are logged, and fail with 500 when school.sql.enforce-budget is set (the sql-budget profile).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    
+    int value();
+}
@@ -1,7 +1,17 @@
 package com.school.controller;
 
+import com.school.dto.ImportReport;
+import com.school.dto.WeeklyTimetable;
 import com.school.entity.Student;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetRequest;
+import com.school.service.ClassService;
+import com.school.service.ImportService;
+import com.school.service.NameSearch;
+import com.school.service.ResourceVersions;
+import com.school.service.ResourceVersions.Resource;
 import com.school.service.StudentService;
+import com.school.service.VersionMismatchException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,11 +20,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,10 +39,17 @@ import java.util.Optional;
 public class StudentController {
     
     private final StudentService studentService;
+    private final ClassService classService;
+    private final ImportService importService;
+    private final ResourceVersions versions;
     
     @Autowired
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, ClassService classService, ImportService importService,
+                             ResourceVersions versions) {
         this.studentService = studentService;
+        this.classService = classService;
+        this.importService = importService;
+        this.versions = versions;
     }
     
     @GetMapping
@@ -35,32 +57,80 @@ public class StudentController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
                     content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = Student.class)))
+                    schema = @Schema(implementation = Student.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Student>> getAllStudents() {
-        List<Student> students = studentService.getAllStudents();
-        return ResponseEntity.ok(students);
+    @CollectionETag(Resource.STUDENTS)
+    @StatementBudget(2)
+    public ResponseEntity<List<Student>> getAllStudents(@ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<Student> students = studentService.getAllStudents(page.toRequest());
+            return KeysetResponses.ok(students);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search students", description = "Ranked prefix search over first name, last name and email, e.g. \"john sm\"")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching students, best match first"),
+        @ApiResponse(responseCode = "400", description = "Missing query or invalid paging parameters")
+    })
+    @CollectionETag(Resource.STUDENTS)
+    @StatementBudget(1)
+    public ResponseEntity<List<Student>> searchStudents(
+            @Parameter(description = "Search text; every word must prefix a name or email word") @RequestParam String q,
+            @Parameter(description = "Number of ranked results to skip (0-" + NameSearch.MAX_OFFSET + "; cursor from X-Next-Cursor)") @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Maximum number of results to return (1-" + KeysetRequest.MAX_LIMIT + ")") @RequestParam(required = false) Integer limit) {
+        try {
+            KeysetPage<Student> students = studentService.searchStudents(q, offset, limit);
+            return KeysetResponses.ok(students, "offset");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get student by ID", description = "Retrieve a student by their ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved student"),
+        @ApiResponse(responseCode = "304", description = "Student unchanged since the If-None-Match ETag"),
         @ApiResponse(responseCode = "404", description = "Student not found")
     })
+    @StatementBudget(1)
     public ResponseEntity<Student> getStudentById(
-            @Parameter(description = "ID of the student to retrieve") @PathVariable Long id) {
-        Optional<Student> student = studentService.getStudentById(id);
-        return student.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "ID of the student to retrieve") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.detail(versions, Resource.STUDENTS, id, ifNoneMatch,
+                () -> studentService.getStudentById(id), Student::getVersion);
+    }
+    
+    @GetMapping("/{id}/timetable")
+    @Operation(summary = "Get student timetable", description = "Weekly grid of the student's classes per term, by day and start time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved timetable"),
+        @ApiResponse(responseCode = "404", description = "Student not found")
+    })
+    @StatementBudget(2)
+    public ResponseEntity<WeeklyTimetable> getStudentTimetable(
+            @Parameter(description = "ID of the student") @PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(classService.getStudentTimetable(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
     
     @GetMapping("/email/{email}")
     @Operation(summary = "Get student by email", description = "Retrieve a student by their email")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved student"),
+        @ApiResponse(responseCode = "304", description = "Student unchanged since the If-None-Match ETag"),
         @ApiResponse(responseCode = "404", description = "Student not found")
     })
+    @CollectionETag(Resource.STUDENTS)
+    @StatementBudget(1)
     public ResponseEntity<Student> getStudentByEmail(
             @Parameter(description = "Email of the student to retrieve") @PathVariable String email) {
         Optional<Student> student = studentService.getStudentByEmail(email);
@@ -71,23 +141,39 @@ public class StudentController {
     @GetMapping("/grade/{gradeLevel}")
     @Operation(summary = "Get students by grade level", description = "Retrieve students by their grade level")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved students")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students"),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
+    @CollectionETag(Resource.STUDENTS)
+    @StatementBudget(2)
     public ResponseEntity<List<Student>> getStudentsByGradeLevel(
-            @Parameter(description = "Grade level to filter by") @PathVariable Integer gradeLevel) {
-        List<Student> students = studentService.getStudentsByGradeLevel(gradeLevel);
-        return ResponseEntity.ok(students);
+            @Parameter(description = "Grade level to filter by") @PathVariable Integer gradeLevel,
+            @ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<Student> students = studentService.getStudentsByGradeLevel(gradeLevel, page.toRequest());
+            return KeysetResponses.ok(students);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/gpa/{gpa}")
     @Operation(summary = "Get students with GPA above threshold", description = "Retrieve students with GPA above specified value")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved students")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students"),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
+    @CollectionETag(Resource.STUDENTS)
+    @StatementBudget(2)
     public ResponseEntity<List<Student>> getStudentsWithGpaAbove(
-            @Parameter(description = "Minimum GPA threshold") @PathVariable Double gpa) {
-        List<Student> students = studentService.getStudentsWithGpaAbove(gpa);
-        return ResponseEntity.ok(students);
+            @Parameter(description = "Minimum GPA threshold") @PathVariable Double gpa,
+            @ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<Student> students = studentService.getStudentsWithGpaAbove(gpa, page.toRequest());
+            return KeysetResponses.ok(students);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PostMapping
@@ -96,29 +182,55 @@ public class StudentController {
         @ApiResponse(responseCode = "201", description = "Student created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input data")
     })
+    @StatementBudget(2)
     public ResponseEntity<Student> createStudent(
             @Parameter(description = "Student object to create") @Valid @RequestBody Student student) {
         try {
             Student createdStudent = studentService.createStudent(student);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(createdStudent.getVersion())).body(createdStudent);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    @Operation(summary = "Bulk import students from CSV",
+               description = "Streams a CSV upload with a header row (the columns of /api/export/students?format=csv; "
+                       + "id is ignored). Valid rows are inserted in batches; rejected rows are reported by line number")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows. "
+                + "If the CSV turned malformed part-way, fatalError names the line and only earlier rows were imported"),
+        @ApiResponse(responseCode = "400", description = "Empty upload, malformed header row, or missing, unknown or duplicate header columns")
+    })
+    // No statement budget: one batch per 1000 rows plus the duplicate lookups, so the count grows with the upload
+    public ResponseEntity<ImportReport> importStudents(InputStream csv) {
+        try {
+            return ResponseEntity.ok(importService.importStudents(csv));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Update a student", description = "Update an existing student")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Student updated successfully"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not name the current version"),
+        @ApiResponse(responseCode = "409", description = "Changed concurrently by another request (no If-Match sent); retry"),
         @ApiResponse(responseCode = "404", description = "Student not found"),
         @ApiResponse(responseCode = "400", description = "Invalid input data")
     })
+    @StatementBudget(3)
     public ResponseEntity<Student> updateStudent(
             @Parameter(description = "ID of the student to update") @PathVariable Long id,
-            @Parameter(description = "Updated student object") @Valid @RequestBody Student studentDetails) {
+            @Parameter(description = "Updated student object") @Valid @RequestBody Student studentDetails,
+            @Parameter(description = "ETag of the version being changed; refused with 412 if it has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Student updatedStudent = studentService.updateStudent(id, studentDetails);
-            return ResponseEntity.ok(updatedStudent);
+            Student updatedStudent = studentService.updateStudent(id, studentDetails, ETags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedStudent.getVersion())).body(updatedStudent);
+        } catch (VersionMismatchException | OptimisticLockingFailureException e) {
+            return ETags.concurrentChange(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -128,14 +240,21 @@ public class StudentController {
     @Operation(summary = "Delete a student", description = "Delete a student by their ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Student deleted successfully"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not name the current version"),
+        @ApiResponse(responseCode = "409", description = "Changed concurrently by another request (no If-Match sent); retry"),
         @ApiResponse(responseCode = "404", description = "Student not found"),
         @ApiResponse(responseCode = "400", description = "Cannot delete student that is enrolled in classes")
     })
+    @StatementBudget(4)
     public ResponseEntity<Void> deleteStudent(
-            @Parameter(description = "ID of the student to delete") @PathVariable Long id) {
+            @Parameter(description = "ID of the student to delete") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being changed; refused with 412 if it has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            studentService.deleteStudent(id);
+            studentService.deleteStudent(id, ETags.expectedVersion(ifMatch));
             return ResponseEntity.noContent().build();
+        } catch (VersionMismatchException | OptimisticLockingFailureException e) {
+            return ETags.concurrentChange(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -1,7 +1,11 @@
 package com.school.controller;
 
 import com.school.entity.Subject;
+import com.school.repository.KeysetPage;
+import com.school.service.ResourceVersions;
+import com.school.service.ResourceVersions.Resource;
 import com.school.service.SubjectService;
+import com.school.service.VersionMismatchException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,7 +14,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,10 +31,12 @@ import java.util.Optional;
 public class SubjectController {
     
     private final SubjectService subjectService;
+    private final ResourceVersions versions;
     
     @Autowired
-    public SubjectController(SubjectService subjectService) {
+    public SubjectController(SubjectService subjectService, ResourceVersions versions) {
         this.subjectService = subjectService;
+        this.versions = versions;
     }
     
     @GetMapping
@@ -35,32 +44,44 @@ public class SubjectController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved subjects",
                     content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = Subject.class)))
+                    schema = @Schema(implementation = Subject.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Subject>> getAllSubjects() {
-        List<Subject> subjects = subjectService.getAllSubjects();
-        return ResponseEntity.ok(subjects);
+    @CollectionETag(Resource.SUBJECTS)
+    @StatementBudget(2)
+    public ResponseEntity<List<Subject>> getAllSubjects(@ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<Subject> subjects = subjectService.getAllSubjects(page.toRequest());
+            return KeysetResponses.ok(subjects);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get subject by ID", description = "Retrieve a subject by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved subject"),
+        @ApiResponse(responseCode = "304", description = "Subject unchanged since the If-None-Match ETag"),
         @ApiResponse(responseCode = "404", description = "Subject not found")
     })
+    @StatementBudget(1)
     public ResponseEntity<Subject> getSubjectById(
-            @Parameter(description = "ID of the subject to retrieve") @PathVariable Long id) {
-        Optional<Subject> subject = subjectService.getSubjectById(id);
-        return subject.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "ID of the subject to retrieve") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.detail(versions, Resource.SUBJECTS, id, ifNoneMatch,
+                () -> subjectService.getSubjectById(id), Subject::getVersion);
     }
     
     @GetMapping("/name/{name}")
     @Operation(summary = "Get subject by name", description = "Retrieve a subject by its name")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved subject"),
+        @ApiResponse(responseCode = "304", description = "Subject unchanged since the If-None-Match ETag"),
         @ApiResponse(responseCode = "404", description = "Subject not found")
     })
+    @CollectionETag(Resource.SUBJECTS)
+    @StatementBudget(1)
     public ResponseEntity<Subject> getSubjectByName(
             @Parameter(description = "Name of the subject to retrieve") @PathVariable String name) {
         Optional<Subject> subject = subjectService.getSubjectByName(name);
@@ -74,11 +95,12 @@ public class SubjectController {
         @ApiResponse(responseCode = "201", description = "Subject created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input data")
     })
+    @StatementBudget(2)
     public ResponseEntity<Subject> createSubject(
             @Parameter(description = "Subject object to create") @Valid @RequestBody Subject subject) {
         try {
             Subject createdSubject = subjectService.createSubject(subject);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdSubject);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(createdSubject.getVersion())).body(createdSubject);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -88,15 +110,22 @@ public class SubjectController {
     @Operation(summary = "Update a subject", description = "Update an existing subject")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Subject updated successfully"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not name the current version"),
+        @ApiResponse(responseCode = "409", description = "Changed concurrently by another request (no If-Match sent); retry"),
         @ApiResponse(responseCode = "404", description = "Subject not found"),
         @ApiResponse(responseCode = "400", description = "Invalid input data")
     })
+    @StatementBudget(3)
     public ResponseEntity<Subject> updateSubject(
             @Parameter(description = "ID of the subject to update") @PathVariable Long id,
-            @Parameter(description = "Updated subject object") @Valid @RequestBody Subject subjectDetails) {
+            @Parameter(description = "Updated subject object") @Valid @RequestBody Subject subjectDetails,
+            @Parameter(description = "ETag of the version being changed; refused with 412 if it has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Subject updatedSubject = subjectService.updateSubject(id, subjectDetails);
-            return ResponseEntity.ok(updatedSubject);
+            Subject updatedSubject = subjectService.updateSubject(id, subjectDetails, ETags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedSubject.getVersion())).body(updatedSubject);
+        } catch (VersionMismatchException | OptimisticLockingFailureException e) {
+            return ETags.concurrentChange(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -106,14 +135,21 @@ public class SubjectController {
     @Operation(summary = "Delete a subject", description = "Delete a subject by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Subject deleted successfully"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not name the current version"),
+        @ApiResponse(responseCode = "409", description = "Changed concurrently by another request (no If-Match sent); retry"),
         @ApiResponse(responseCode = "404", description = "Subject not found"),
         @ApiResponse(responseCode = "400", description = "Cannot delete subject that is used in classes")
     })
+    @StatementBudget(3)
     public ResponseEntity<Void> deleteSubject(
-            @Parameter(description = "ID of the subject to delete") @PathVariable Long id) {
+            @Parameter(description = "ID of the subject to delete") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being changed; refused with 412 if it has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            subjectService.deleteSubject(id);
+            subjectService.deleteSubject(id, ETags.expectedVersion(ifMatch));
             return ResponseEntity.noContent().build();
+        } catch (VersionMismatchException | OptimisticLockingFailureException e) {
+            return ETags.concurrentChange(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
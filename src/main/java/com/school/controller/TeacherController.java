@@ -1,7 +1,17 @@
 package com.school.controller;
 
+import com.school.dto.ImportReport;
+import com.school.dto.WeeklyTimetable;
 import com.school.entity.Teacher;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetRequest;
+import com.school.service.ClassService;
+import com.school.service.ImportService;
+import com.school.service.NameSearch;
+import com.school.service.ResourceVersions;
+import com.school.service.ResourceVersions.Resource;
 import com.school.service.TeacherService;
+import com.school.service.VersionMismatchException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,11 +20,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,10 +39,17 @@ import java.util.Optional;
 public class TeacherController {
     
     private final TeacherService teacherService;
+    private final ClassService classService;
+    private final ImportService importService;
+    private final ResourceVersions versions;
     
     @Autowired
-    public TeacherController(TeacherService teacherService) {
+    public TeacherController(TeacherService teacherService, ClassService classService, ImportService importService,
+                             ResourceVersions versions) {
         this.teacherService = teacherService;
+        this.classService = classService;
+        this.importService = importService;
+        this.versions = versions;
     }
     
     @GetMapping
@@ -35,32 +57,80 @@ public class TeacherController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved teachers",
                     content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = Teacher.class)))
+                    schema = @Schema(implementation = Teacher.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
     })
-    public ResponseEntity<List<Teacher>> getAllTeachers() {
-        List<Teacher> teachers = teacherService.getAllTeachers();
-        return ResponseEntity.ok(teachers);
+    @CollectionETag(Resource.TEACHERS)
+    @StatementBudget(2)
+    public ResponseEntity<List<Teacher>> getAllTeachers(@ParameterObject KeysetParams page) {
+        try {
+            KeysetPage<Teacher> teachers = teacherService.getAllTeachers(page.toRequest());
+            return KeysetResponses.ok(teachers);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search teachers", description = "Ranked prefix search over first name, last name and email, e.g. \"john sm\"")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching teachers, best match first"),
+        @ApiResponse(responseCode = "400", description = "Missing query or invalid paging parameters")
+    })
+    @CollectionETag(Resource.TEACHERS)
+    @StatementBudget(1)
+    public ResponseEntity<List<Teacher>> searchTeachers(
+            @Parameter(description = "Search text; every word must prefix a name or email word") @RequestParam String q,
+            @Parameter(description = "Number of ranked results to skip (0-" + NameSearch.MAX_OFFSET + "; cursor from X-Next-Cursor)") @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Maximum number of results to return (1-" + KeysetRequest.MAX_LIMIT + ")") @RequestParam(required = false) Integer limit) {
+        try {
+            KeysetPage<Teacher> teachers = teacherService.searchTeachers(q, offset, limit);
+            return KeysetResponses.ok(teachers, "offset");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get teacher by ID", description = "Retrieve a teacher by their ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved teacher"),
+        @ApiResponse(responseCode = "304", description = "Teacher unchanged since the If-None-Match ETag"),
         @ApiResponse(responseCode = "404", description = "Teacher not found")
     })
+    @StatementBudget(1)
     public ResponseEntity<Teacher> getTeacherById(
-            @Parameter(description = "ID of the teacher to retrieve") @PathVariable Long id) {
-        Optional<Teacher> teacher = teacherService.getTeacherById(id);
-        return teacher.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "ID of the teacher to retrieve") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.detail(versions, Resource.TEACHERS, id, ifNoneMatch,
+                () -> teacherService.getTeacherById(id), Teacher::getVersion);
+    }
+    
+    @GetMapping("/{id}/timetable")
+    @Operation(summary = "Get teacher timetable", description = "Weekly grid of the teacher's classes per term, by day and start time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved timetable"),
+        @ApiResponse(responseCode = "404", description = "Teacher not found")
+    })
+    @StatementBudget(2)
+    public ResponseEntity<WeeklyTimetable> getTeacherTimetable(
+            @Parameter(description = "ID of the teacher") @PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(classService.getTeacherTimetable(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
     
     @GetMapping("/email/{email}")
     @Operation(summary = "Get teacher by email", description = "Retrieve a teacher by their email")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved teacher"),
+        @ApiResponse(responseCode = "304", description = "Teacher unchanged since the If-None-Match ETag"),
         @ApiResponse(responseCode = "404", description = "Teacher not found")
     })
+    @CollectionETag(Resource.TEACHERS)
+    @StatementBudget(1)
     public ResponseEntity<Teacher> getTeacherByEmail(
             @Parameter(description = "Email of the teacher to retrieve") @PathVariable String email) {
         Optional<Teacher> teacher = teacherService.getTeacherByEmail(email);
@@ -74,29 +144,55 @@ public class TeacherController {
         @ApiResponse(responseCode = "201", description = "Teacher created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input data")
     })
+    @StatementBudget(2)
     public ResponseEntity<Teacher> createTeacher(
             @Parameter(description = "Teacher object to create") @Valid @RequestBody Teacher teacher) {
         try {
             Teacher createdTeacher = teacherService.createTeacher(teacher);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdTeacher);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(createdTeacher.getVersion())).body(createdTeacher);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    @Operation(summary = "Bulk import teachers from CSV",
+               description = "Streams a CSV upload with a header row (the columns of /api/export/teachers?format=csv; "
+                       + "id is ignored). Valid rows are inserted in batches; rejected rows are reported by line number")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows. "
+                + "If the CSV turned malformed part-way, fatalError names the line and only earlier rows were imported"),
+        @ApiResponse(responseCode = "400", description = "Empty upload, malformed header row, or missing, unknown or duplicate header columns")
+    })
+    // No statement budget: one batch per 1000 rows plus the duplicate lookups, so the count grows with the upload
+    public ResponseEntity<ImportReport> importTeachers(InputStream csv) {
+        try {
+            return ResponseEntity.ok(importService.importTeachers(csv));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Update a teacher", description = "Update an existing teacher")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Teacher updated successfully"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not name the current version"),
+        @ApiResponse(responseCode = "409", description = "Changed concurrently by another request (no If-Match sent); retry"),
         @ApiResponse(responseCode = "404", description = "Teacher not found"),
         @ApiResponse(responseCode = "400", description = "Invalid input data")
     })
+    @StatementBudget(3)
     public ResponseEntity<Teacher> updateTeacher(
             @Parameter(description = "ID of the teacher to update") @PathVariable Long id,
-            @Parameter(description = "Updated teacher object") @Valid @RequestBody Teacher teacherDetails) {
+            @Parameter(description = "Updated teacher object") @Valid @RequestBody Teacher teacherDetails,
+            @Parameter(description = "ETag of the version being changed; refused with 412 if it has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Teacher updatedTeacher = teacherService.updateTeacher(id, teacherDetails);
-            return ResponseEntity.ok(updatedTeacher);
+            Teacher updatedTeacher = teacherService.updateTeacher(id, teacherDetails, ETags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedTeacher.getVersion())).body(updatedTeacher);
+        } catch (VersionMismatchException | OptimisticLockingFailureException e) {
+            return ETags.concurrentChange(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -106,14 +202,21 @@ public class TeacherController {
     @Operation(summary = "Delete a teacher", description = "Delete a teacher by their ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Teacher deleted successfully"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not name the current version"),
+        @ApiResponse(responseCode = "409", description = "Changed concurrently by another request (no If-Match sent); retry"),
         @ApiResponse(responseCode = "404", description = "Teacher not found"),
         @ApiResponse(responseCode = "400", description = "Cannot delete teacher that is assigned to classes")
     })
+    @StatementBudget(3)
     public ResponseEntity<Void> deleteTeacher(
-            @Parameter(description = "ID of the teacher to delete") @PathVariable Long id) {
+            @Parameter(description = "ID of the teacher to delete") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being changed; refused with 412 if it has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            teacherService.deleteTeacher(id);
+            teacherService.deleteTeacher(id, ETags.expectedVersion(ifMatch));
             return ResponseEntity.noContent().build();
+        } catch (VersionMismatchException | OptimisticLockingFailureException e) {
+            return ETags.concurrentChange(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
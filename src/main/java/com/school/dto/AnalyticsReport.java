@@ -0,0 +1,38 @@
+package com.school.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Distribution of one metric, overall or per group, as of the last analytics refresh.
+ */
+public class AnalyticsReport {
+    
+    private final String metric;
+    private final String groupBy;
+    private final Instant asOf;
+    private final List<DistributionStats> groups;
+    
+    public AnalyticsReport(String metric, String groupBy, Instant asOf, List<DistributionStats> groups) {
+        this.metric = metric;
+        this.groupBy = groupBy;
+        this.asOf = asOf;
+        this.groups = groups;
+    }
+    
+    public String getMetric() {
+        return metric;
+    }
+    
+    public String getGroupBy() {
+        return groupBy;
+    }
+    
+    public Instant getAsOf() {
+        return asOf;
+    }
+    
+    public List<DistributionStats> getGroups() {
+        return groups;
+    }
+}
@@ -0,0 +1,79 @@
+package com.school.dto;
+
+import java.time.Instant;
+
+/**
+ * One committed change from the change log. Consumers keep the offset of the last event they
+ * processed and ask for the events after it; the entity itself is fetched by id, and
+ * {@code version} (its ETag) tells whether a copy already held is current.
+ *
+ * <p>ENROLLED and REMOVED are about class {@code id} and student {@code relatedId}. A DELETED
+ * class takes its enrollments and waitlist with it, and renaming a teacher or subject changes
+ * how their classes are shown without a CLASS event of its own.
+ */
+public class ChangeEvent {
+    
+    public enum Entity {
+        STUDENT,
+        TEACHER,
+        SUBJECT,
+        CLASS
+    }
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        ENROLLED,
+        REMOVED
+    }
+    
+    private final long offset;
+    private final Instant timestamp;
+    private final Entity entity;
+    private final Type type;
+    private final Long id;
+    private final Long relatedId;
+    private final Long version;
+    
+    public ChangeEvent(long offset, Instant timestamp, Entity entity, Type type, Long id, Long relatedId,
+                       Long version) {
+        this.offset = offset;
+        this.timestamp = timestamp;
+        this.entity = entity;
+        this.type = type;
+        this.id = id;
+        this.relatedId = relatedId;
+        this.version = version;
+    }
+    
+    public long getOffset() {
+        return offset;
+    }
+    
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+    
+    public Entity getEntity() {
+        return entity;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    /** The student of an ENROLLED or REMOVED event, otherwise null. */
+    public Long getRelatedId() {
+        return relatedId;
+    }
+    
+    /** The entity's version after the change (the class's for enrollments); null once DELETED. */
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,84 @@
+package com.school.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of one numeric column for one group: count, mean, extremes, percentiles and a
+ * histogram of non-empty bins. Statistics are null for an empty group.
+ */
+public class DistributionStats {
+    
+    private final String group;
+    private final long count;
+    private final Double mean;
+    private final Double min;
+    private final Double max;
+    private final Map<String, Double> percentiles;
+    private final List<Bucket> histogram;
+    
+    public DistributionStats(String group, long count, Double mean, Double min, Double max,
+                             Map<String, Double> percentiles, List<Bucket> histogram) {
+        this.group = group;
+        this.count = count;
+        this.mean = mean;
+        this.min = min;
+        this.max = max;
+        this.percentiles = percentiles;
+        this.histogram = histogram;
+    }
+    
+    public String getGroup() {
+        return group;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public Double getMean() {
+        return mean;
+    }
+    
+    public Double getMin() {
+        return min;
+    }
+    
+    public Double getMax() {
+        return max;
+    }
+    
+    public Map<String, Double> getPercentiles() {
+        return percentiles;
+    }
+    
+    public List<Bucket> getHistogram() {
+        return histogram;
+    }
+    
+    /** Values in [from, to). */
+    public static class Bucket {
+    
+        private final double from;
+        private final double to;
+        private final long count;
+    
+        public Bucket(double from, double to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+    
+        public double getFrom() {
+            return from;
+        }
+    
+        public double getTo() {
+            return to;
+        }
+    
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.school.dto;
+
+/**
+ * Outcome of enrolling one student as part of a bulk enrollment request.
+ */
+public class EnrollmentResult {
+    
+    public enum Status {
+        ENROLLED,
+        DUPLICATE,
+        NOT_FOUND,
+        OVER_CAPACITY,
+        SCHEDULE_CONFLICT
+    }
+    
+    private final Long studentId;
+    private final Status status;
+    
+    public EnrollmentResult(Long studentId, Status status) {
+        this.studentId = studentId;
+        this.status = status;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+}
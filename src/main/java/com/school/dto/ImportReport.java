@@ -0,0 +1,84 @@
+package com.school.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk CSV import: row counts and, for each rejected row, its line number and
+ * the reasons it was rejected (up to {@code maxReportedErrors} rows). {@code fatalError} is set
+ * when the file became unreadable part-way; the counts then cover the rows before that line,
+ * which were imported, and nothing after it was read.
+ */
+public class ImportReport {
+    
+    public static class RowError {
+    
+        private final long line;
+        private final List<String> messages;
+    
+        public RowError(long line, List<String> messages) {
+            this.line = line;
+            this.messages = messages;
+        }
+    
+        public long getLine() {
+            return line;
+        }
+    
+        public List<String> getMessages() {
+            return messages;
+        }
+    }
+    
+    private final String dataset;
+    private final long rows;
+    private final long imported;
+    private final long rejected;
+    private final long elapsedMillis;
+    private final int maxReportedErrors;
+    private final List<RowError> errors;
+    private final RowError fatalError;
+    
+    public ImportReport(String dataset, long rows, long imported, long rejected, long elapsedMillis,
+                        int maxReportedErrors, List<RowError> errors, RowError fatalError) {
+        this.dataset = dataset;
+        this.rows = rows;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.maxReportedErrors = maxReportedErrors;
+        this.errors = errors;
+        this.fatalError = fatalError;
+    }
+    
+    public String getDataset() {
+        return dataset;
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public RowError getFatalError() {
+        return fatalError;
+    }
+}
@@ -0,0 +1,58 @@
+package com.school.dto;
+
+/**
+ * Where a student stands on a class waitlist. Once promoted the student is ENROLLED and has no
+ * position; a student who is neither waiting nor enrolled has no WaitlistPosition at all.
+ */
+public class WaitlistPosition {
+    
+    public enum Status {
+        WAITING,
+        ENROLLED
+    }
+    
+    private final Long classId;
+    private final Long studentId;
+    private final Status status;
+    private final Long position;
+    private final Long waiting;
+    
+    // JPQL constructor expression: a waiting student, 1-based position in a queue of {@code waiting}
+    public WaitlistPosition(Long classId, Long studentId, Long position, Long waiting) {
+        this(classId, studentId, Status.WAITING, position, waiting);
+    }
+    
+    private WaitlistPosition(Long classId, Long studentId, Status status, Long position, Long waiting) {
+        this.classId = classId;
+        this.studentId = studentId;
+        this.status = status;
+        this.position = position;
+        this.waiting = waiting;
+    }
+    
+    public static WaitlistPosition enrolled(Long classId, Long studentId) {
+        return new WaitlistPosition(classId, studentId, Status.ENROLLED, null, null);
+    }
+    
+    public Long getClassId() {
+        return classId;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    /** 1 for the next student to be offered a seat; null once enrolled. */
+    public Long getPosition() {
+        return position;
+    }
+    
+    /** Students on this class's waitlist in total; null once enrolled. */
+    public Long getWaiting() {
+        return waiting;
+    }
+}
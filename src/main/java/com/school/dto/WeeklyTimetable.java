@@ -0,0 +1,103 @@
+package com.school.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A person's week as a grid: for each term, the classes meeting on each day ordered by start
+ * time. Classes without a usable schedule are listed separately.
+ */
+public class WeeklyTimetable {
+    
+    private final List<Term> terms;
+    
+    public WeeklyTimetable(List<Term> terms) {
+        this.terms = terms;
+    }
+    
+    public List<Term> getTerms() {
+        return terms;
+    }
+    
+    public static class Term {
+    
+        private final String semester;
+        private final String academicYear;
+        private final Map<DayOfWeek, List<Slot>> days;
+        private final List<Slot> unscheduled;
+    
+        public Term(String semester, String academicYear, Map<DayOfWeek, List<Slot>> days, List<Slot> unscheduled) {
+            this.semester = semester;
+            this.academicYear = academicYear;
+            this.days = days;
+            this.unscheduled = unscheduled;
+        }
+    
+        public String getSemester() {
+            return semester;
+        }
+    
+        public String getAcademicYear() {
+            return academicYear;
+        }
+    
+        public Map<DayOfWeek, List<Slot>> getDays() {
+            return days;
+        }
+    
+        public List<Slot> getUnscheduled() {
+            return unscheduled;
+        }
+    }
+    
+    public static class Slot {
+    
+        private final Long classId;
+        private final String className;
+        private final String subjectName;
+        private final String teacherName;
+        private final String roomNumber;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+    
+        public Slot(ClassSummary c) {
+            this.classId = c.getId();
+            this.className = c.getName();
+            this.subjectName = c.getSubjectName();
+            this.teacherName = c.getTeacherName();
+            this.roomNumber = c.getRoomNumber();
+            this.startTime = c.getStartTime();
+            this.endTime = c.getEndTime();
+        }
+    
+        public Long getClassId() {
+            return classId;
+        }
+    
+        public String getClassName() {
+            return className;
+        }
+    
+        public String getSubjectName() {
+            return subjectName;
+        }
+    
+        public String getTeacherName() {
+            return teacherName;
+        }
+    
+        public String getRoomNumber() {
+            return roomNumber;
+        }
+    
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+    
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+    }
+}
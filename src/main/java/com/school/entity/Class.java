@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -13,7 +14,14 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "classes")
+@Table(name = "classes", indexes = {
+    @Index(name = "idx_classes_seats_remaining", columnList = "seats_remaining"),
+    // Single-column so H2 reuses them for the foreign keys; its secondary indexes end in the row ID
+    @Index(name = "idx_classes_subject", columnList = "subject_id"),
+    @Index(name = "idx_classes_teacher", columnList = "teacher_id"),
+    @Index(name = "idx_classes_semester_year", columnList = "semester, academic_year, id"),
+    @Index(name = "idx_classes_name", columnList = "name, id")
+})
 public class Class {
     
     @Id
@@ -50,6 +58,23 @@ public class Class {
     @Column(name = "academic_year")
     private String academicYear;
     
+    // Maintained by ClassService under the class row lock; checked against class_students by
+    // EnrollmentCountReconciler. seatsRemaining = capacity - enrolledCount, null when uncapped
+    @Column(name = "enrolled_count", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int enrolledCount;
+    
+    @Column(name = "seats_remaining")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer seatsRemaining;
+    
+    // Optimistic lock: incremented on every update and served as the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subject_id", nullable = false)
@@ -65,7 +90,9 @@ public class Class {
     @JoinTable(
         name = "class_students",
         joinColumns = @JoinColumn(name = "class_id"),
-        inverseJoinColumns = @JoinColumn(name = "student_id")
+        inverseJoinColumns = @JoinColumn(name = "student_id"),
+        // The primary key (class_id, student_id) serves roster lookups; this one a student's classes
+        indexes = @Index(name = "idx_class_students_student", columnList = "student_id, class_id")
     )
     @JsonIgnore
     private Set<Student> students = new HashSet<>();
@@ -89,6 +116,7 @@ public class Class {
         this.description = description;
         this.roomNumber = roomNumber;
         this.capacity = capacity;
+        this.seatsRemaining = capacity;
         this.startTime = startTime;
         this.endTime = endTime;
         this.daysOfWeek = daysOfWeek;
@@ -107,6 +135,14 @@ public class Class {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public String getName() {
         return name;
     }
@@ -137,6 +173,7 @@ public class Class {
     
     public void setCapacity(Integer capacity) {
         this.capacity = capacity;
+        syncSeatsRemaining();
     }
     
     public LocalTime getStartTime() {
@@ -179,6 +216,31 @@ public class Class {
         this.academicYear = academicYear;
     }
     
+    public int getEnrolledCount() {
+        return enrolledCount;
+    }
+    
+    public void setEnrolledCount(int enrolledCount) {
+        this.enrolledCount = enrolledCount;
+        syncSeatsRemaining();
+    }
+    
+    public Integer getSeatsRemaining() {
+        return seatsRemaining;
+    }
+    
+    public void adjustEnrolledCount(int delta) {
+        setEnrolledCount(enrolledCount + delta);
+    }
+    
+    public boolean hasFreeSeat() {
+        return seatsRemaining == null || seatsRemaining > 0;
+    }
+    
+    private void syncSeatsRemaining() {
+        this.seatsRemaining = capacity != null ? capacity - enrolledCount : null;
+    }
+    
     public Subject getSubject() {
         return subject;
     }
@@ -5,14 +5,21 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+    @Index(name = "idx_students_grade_level", columnList = "grade_level, id"),
+    @Index(name = "idx_students_gpa", columnList = "gpa, id"),
+    @Index(name = "idx_students_last_name", columnList = "last_name, id"),
+    @Index(name = "idx_students_first_name", columnList = "first_name, id")
+})
 public class Student {
     
     @Id
@@ -53,6 +60,13 @@ public class Student {
     @Column(name = "gpa")
     private Double gpa;
     
+    // Optimistic lock: incremented on every update and served as the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     // Relationships
     @ManyToMany(mappedBy = "students", fetch = FetchType.LAZY)
     @JsonIgnore
@@ -84,6 +98,14 @@ public class Student {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public String getFirstName() {
         return firstName;
     }
@@ -3,13 +3,22 @@ package com.school.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "subjects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subjects")
+@NaturalIdCache(region = "subjects-by-name")
 public class Subject {
     
     @Id
@@ -18,6 +27,7 @@ public class Subject {
     
     @NotBlank(message = "Subject name is required")
     @Size(min = 2, max = 100, message = "Subject name must be between 2 and 100 characters")
+    @NaturalId(mutable = true)
     @Column(name = "name", nullable = false, unique = true)
     private String name;
     
@@ -28,6 +38,13 @@ public class Subject {
     @Column(name = "credits")
     private Integer credits;
     
+    // Optimistic lock: incremented on every update and served as the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     // Relationships
     @OneToMany(mappedBy = "subject", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -51,6 +68,14 @@ public class Subject {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public String getName() {
         return name;
     }
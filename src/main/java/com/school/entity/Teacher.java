@@ -5,14 +5,26 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "teachers")
+@Table(name = "teachers", indexes = {
+    @Index(name = "idx_teachers_last_name", columnList = "last_name, id"),
+    @Index(name = "idx_teachers_first_name", columnList = "first_name, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teachers")
+@NaturalIdCache(region = "teachers-by-email")
 public class Teacher {
     
     @Id
@@ -30,6 +42,7 @@ public class Teacher {
     private String lastName;
     
     @Email(message = "Email should be valid")
+    @NaturalId(mutable = true)
     @Column(name = "email", unique = true)
     private String email;
     
@@ -50,6 +63,13 @@ public class Teacher {
     @Column(name = "salary")
     private Double salary;
     
+    // Optimistic lock: incremented on every update and served as the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     // Relationships
     @OneToMany(mappedBy = "teacher", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -79,6 +99,14 @@ public class Teacher {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public String getFirstName() {
         return firstName;
     }
@@ -0,0 +1,77 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A student waiting for a seat in a full class. Entries are served in id order, which is the
+ * order they joined in.
+ */
+@Entity
+@Table(name = "class_waitlist", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_class_waitlist_class_student", columnNames = {"class_id", "student_id"})
+}, indexes = {
+    // Single-column so H2 reuses them for the foreign keys; ending in the row ID, the class
+    // index also lists a class's queue in joining order
+    @Index(name = "idx_class_waitlist_class", columnList = "class_id"),
+    @Index(name = "idx_class_waitlist_student", columnList = "student_id")
+})
+public class WaitlistEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "class_id", nullable = false)
+    private Class classEntity;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+    
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+    
+    // Constructors
+    public WaitlistEntry() {}
+    
+    public WaitlistEntry(Class classEntity, Student student) {
+        this.classEntity = classEntity;
+        this.student = student;
+        this.joinedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Class getClassEntity() {
+        return classEntity;
+    }
+    
+    public void setClassEntity(Class classEntity) {
+        this.classEntity = classEntity;
+    }
+    
+    public Student getStudent() {
+        return student;
+    }
+    
+    public void setStudent(Student student) {
+        this.student = student;
+    }
+    
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+    
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+}
@@ -1,16 +1,28 @@
 package com.school.repository;
 
+import com.school.dto.ClassSummary;
 import com.school.entity.Class;
 import com.school.entity.Subject;
 import com.school.entity.Teacher;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ClassRepository extends JpaRepository<Class, Long> {
+public interface ClassRepository extends JpaRepository<Class, Long>, JpaSpecificationExecutor<Class>,
+        ClassRepositoryCustom {
     
     List<Class> findBySubject(Subject subject);
     
@@ -21,6 +33,84 @@ public interface ClassRepository extends JpaRepository<Class, Long> {
     @Query("SELECT c FROM Class c JOIN c.students s WHERE s.id = :studentId")
     List<Class> findByStudentId(@Param("studentId") Long studentId);
     
-    @Query("SELECT c FROM Class c WHERE c.capacity > (SELECT COUNT(s) FROM c.students s)")
+    @Query("SELECT c FROM Class c WHERE c.seatsRemaining > 0")
     List<Class> findAvailableClasses();
+    
+    @Query("SELECT new com.school.dto.ClassSummary(c.id, c.name, c.description, c.roomNumber, c.capacity, "
+         + "c.startTime, c.endTime, c.daysOfWeek, c.semester, c.academicYear, c.enrolledCount, c.seatsRemaining, "
+         + "s.id, s.name, t.id, t.firstName, t.lastName, c.version) "
+         + "FROM Class c JOIN c.subject s JOIN c.teacher t WHERE c.id = :id")
+    Optional<ClassSummary> findSummaryById(@Param("id") Long id);
+    
+    @Query("SELECT new com.school.dto.ClassSummary(c.id, c.name, c.description, c.roomNumber, c.capacity, "
+         + "c.startTime, c.endTime, c.daysOfWeek, c.semester, c.academicYear, c.enrolledCount, c.seatsRemaining, "
+         + "s.id, s.name, t.id, t.firstName, t.lastName, c.version) "
+         + "FROM Class c JOIN c.subject s JOIN c.teacher t JOIN c.students st WHERE st.id = :studentId")
+    List<ClassSummary> findSummariesByStudentId(@Param("studentId") Long studentId);
+    
+    @Query("SELECT new com.school.dto.ClassSummary(c.id, c.name, c.description, c.roomNumber, c.capacity, "
+         + "c.startTime, c.endTime, c.daysOfWeek, c.semester, c.academicYear, c.enrolledCount, c.seatsRemaining, "
+         + "s.id, s.name, t.id, t.firstName, t.lastName, c.version) "
+         + "FROM Class c JOIN c.subject s JOIN c.teacher t WHERE t.id = :teacherId")
+    List<ClassSummary> findSummariesByTeacherId(@Param("teacherId") Long teacherId);
+    
+    // Forward-only reads for exports: rows come from the driver in batches. The LEFT JOINs (both
+    // are non-null) keep classes as the driving table, so rows stream in primary key order
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.school.dto.ClassSummary(c.id, c.name, c.description, c.roomNumber, c.capacity, "
+         + "c.startTime, c.endTime, c.daysOfWeek, c.semester, c.academicYear, c.enrolledCount, c.seatsRemaining, "
+         + "s.id, s.name, t.id, t.firstName, t.lastName, c.version) "
+         + "FROM Class c LEFT JOIN c.subject s LEFT JOIN c.teacher t ORDER BY c.id")
+    Stream<ClassSummary> streamSummaries();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT class_id, student_id FROM class_students ORDER BY class_id, student_id", nativeQuery = true)
+    Stream<Object[]> streamEnrollments();
+    
+    // A renamed teacher or subject changes how each of their classes is shown, so their versions move on
+    @Modifying
+    @Query("UPDATE Class c SET c.version = c.version + 1 WHERE c.teacher.id = :teacherId")
+    int incrementVersionsByTeacherId(@Param("teacherId") Long teacherId);
+    
+    @Modifying
+    @Query("UPDATE Class c SET c.version = c.version + 1 WHERE c.subject.id = :subjectId")
+    int incrementVersionsBySubjectId(@Param("subjectId") Long subjectId);
+    
+    // SELECT ... FOR UPDATE: holds the class row lock until the enrolling transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Class c WHERE c.id = :id")
+    Optional<Class> findByIdForUpdate(@Param("id") Long id);
+    
+    @Query(value = "SELECT COUNT(*) FROM class_students WHERE class_id = :classId", nativeQuery = true)
+    long countEnrolled(@Param("classId") Long classId);
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM class_students WHERE class_id = :classId AND student_id = :studentId)",
+           nativeQuery = true)
+    boolean isEnrolled(@Param("classId") Long classId, @Param("studentId") Long studentId);
+    
+    @Query(value = "SELECT student_id FROM class_students WHERE class_id = :classId AND student_id IN (:studentIds)",
+           nativeQuery = true)
+    List<Long> findEnrolledStudentIds(@Param("classId") Long classId, @Param("studentIds") Collection<Long> studentIds);
+    
+    @Query(value = "SELECT student_id FROM class_students WHERE class_id = :classId", nativeQuery = true)
+    List<Long> findStudentIdsByClassId(@Param("classId") Long classId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO class_students (class_id, student_id) VALUES (:classId, :studentId)", nativeQuery = true)
+    int insertEnrollment(@Param("classId") Long classId, @Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM class_students WHERE class_id = :classId AND student_id = :studentId", nativeQuery = true)
+    int deleteEnrollment(@Param("classId") Long classId, @Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM class_students WHERE class_id = :classId", nativeQuery = true)
+    int deleteEnrollments(@Param("classId") Long classId);
+    
+    // Classes whose enrolled_count no longer matches their class_students rows. Each count is a
+    // primary key range of class_students, so no grouping of the whole join is needed
+    @Query(value = "SELECT c.id FROM classes c "
+                 + "WHERE c.enrolled_count <> (SELECT COUNT(*) FROM class_students cs WHERE cs.class_id = c.id)",
+           nativeQuery = true)
+    List<Long> findClassIdsWithEnrolledCountDrift();
 } 
\ No newline at end of file
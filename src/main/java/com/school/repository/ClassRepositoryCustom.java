@@ -0,0 +1,11 @@
+package com.school.repository;
+
+import com.school.dto.ClassSummary;
+import com.school.entity.Class;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ClassRepositoryCustom {
+    
+    // One count query plus one joined constructor-expression query, whatever the page size
+    KeysetPage<ClassSummary> findSummaries(Specification<Class> filter, KeysetRequest request);
+}
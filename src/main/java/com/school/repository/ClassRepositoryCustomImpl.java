@@ -0,0 +1,73 @@
+package com.school.repository;
+
+import com.school.dto.ClassSummary;
+import com.school.entity.Class;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class ClassRepositoryCustomImpl implements ClassRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public KeysetPage<ClassSummary> findSummaries(Specification<Class> filter, KeysetRequest request) {
+        Specification<Class> where = Specification.where(filter);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Class> countRoot = countQuery.from(Class.class);
+        countQuery.select(cb.count(countRoot));
+        Predicate countPredicate = where.toPredicate(countRoot, countQuery, cb);
+        if (countPredicate != null) {
+            countQuery.where(countPredicate);
+        }
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+        
+        CriteriaQuery<ClassSummary> query = cb.createQuery(ClassSummary.class);
+        Root<Class> root = query.from(Class.class);
+        // Subject and teacher names are primary key lookups per returned row rather than joins: with
+        // joins H2 may drive the query from a scan of subjects, and the filter could no longer pick
+        // the index that finds the page (classes by student start from idx_class_students_student)
+        query.select(cb.construct(ClassSummary.class,
+                root.get("id"), root.get("name"), root.get("description"), root.get("roomNumber"),
+                root.get("capacity"), root.get("startTime"), root.get("endTime"), root.get("daysOfWeek"),
+                root.get("semester"), root.get("academicYear"), root.get("enrolledCount"), root.get("seatsRemaining"),
+                root.get("subject").get("id"), lookup(query, root, "subject", "name"),
+                root.get("teacher").get("id"), lookup(query, root, "teacher", "firstName"),
+                lookup(query, root, "teacher", "lastName"), root.get("version")));
+        Predicate predicate = where.and(KeysetQueries.after(request)).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(request.toSort(), root, cb));
+        
+        // Fetch one extra row to find out whether another page exists
+        List<ClassSummary> rows = entityManager.createQuery(query)
+                .setMaxResults(request.getLimit() + 1)
+                .getResultList();
+        
+        Long nextCursor = null;
+        if (rows.size() > request.getLimit()) {
+            rows = rows.subList(0, request.getLimit());
+            nextCursor = rows.get(rows.size() - 1).getId();
+        }
+        return new KeysetPage<>(rows, total, nextCursor);
+    }
+    
+    // The column of the class's subject or teacher as a correlated scalar subquery
+    private static Subquery<String> lookup(CriteriaQuery<?> query, Root<Class> root, String reference, String column) {
+        Subquery<String> lookup = query.subquery(String.class);
+        return lookup.select(lookup.correlate(root).join(reference).get(column));
+    }
+}
@@ -0,0 +1,32 @@
+package com.school.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Plain JDBC writes to the class_students join table. Runs inside the caller's
+ * JPA transaction, so rows become visible together with the rest of the unit of work.
+ */
+@Repository
+public class EnrollmentBatchRepository {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    public EnrollmentBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    public void insertEnrollments(Long classId, List<Long> studentIds) {
+        jdbcTemplate.batchUpdate("INSERT INTO class_students (class_id, student_id) VALUES (?, ?)",
+                studentIds, BATCH_SIZE, (ps, studentId) -> {
+                    ps.setLong(1, classId);
+                    ps.setLong(2, studentId);
+                });
+    }
+}
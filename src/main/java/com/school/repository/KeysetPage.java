@@ -0,0 +1,36 @@
+package com.school.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset scan. {@code nextCursor} is the ID to pass as {@code after}
+ * for the following page, or {@code null} when this is the last page.
+ */
+public final class KeysetPage<T> {
+
+    private final List<T> items;
+    private final long totalCount;
+    private final Long nextCursor;
+
+    public KeysetPage(List<T> items, long totalCount, Long nextCursor) {
+        this.items = items;
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
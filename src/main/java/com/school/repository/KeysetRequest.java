@@ -0,0 +1,93 @@
+package com.school.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cursor-based page request: rows strictly after the row with ID {@code after}
+ * in the requested sort order, at most {@code limit} of them. Non-ID sort
+ * properties must be non-null {@code String} columns so the cursor comparison is total.
+ */
+public final class KeysetRequest {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    public static final String ID = "id";
+
+    private final Long after;
+    private final int limit;
+    private final String sortProperty;
+    private final Sort.Direction direction;
+    private final List<String> fixedProperties;
+
+    private KeysetRequest(Long after, int limit, String sortProperty, Sort.Direction direction,
+                          List<String> fixedProperties) {
+        this.after = after;
+        this.limit = limit;
+        this.sortProperty = sortProperty;
+        this.direction = direction;
+        this.fixedProperties = fixedProperties;
+    }
+
+    public static KeysetRequest of(Long after, Integer limit, String sortProperty, String direction) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        String property = sortProperty == null || sortProperty.isBlank() ? ID : sortProperty;
+        Sort.Direction dir = direction == null || direction.isBlank()
+                ? Sort.Direction.ASC : Sort.Direction.fromString(direction);
+        return new KeysetRequest(after, size, property, dir, List.of());
+    }
+
+    public static KeysetRequest firstPage() {
+        return new KeysetRequest(null, DEFAULT_LIMIT, ID, Sort.Direction.ASC, List.of());
+    }
+
+    /**
+     * This page for a filter that holds each of {@code properties} to a single value. They are
+     * sorted on ahead of the requested order, which leaves the rows in the same order but lets
+     * H2 read a (property..., id) index in order; it only does so for an index prefix of the
+     * ORDER BY, so without them it reads every matching row and sorts.
+     */
+    public KeysetRequest fixing(String... properties) {
+        return new KeysetRequest(after, limit, sortProperty, direction, List.of(properties));
+    }
+
+    public KeysetRequest requireSortableBy(Set<String> sortable) {
+        if (!ID.equals(sortProperty) && !sortable.contains(sortProperty)) {
+            throw new IllegalArgumentException("Cannot sort by '" + sortProperty + "'");
+        }
+        return this;
+    }
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getSortProperty() {
+        return sortProperty;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    // Fixed properties, then the sort property, then ID as the unique tie-breaker the cursor relies on
+    public Sort toSort() {
+        Sort sort = Sort.unsorted();
+        for (String property : fixedProperties) {
+            sort = sort.and(Sort.by(direction, property));
+        }
+        if (!ID.equals(sortProperty)) {
+            sort = sort.and(Sort.by(direction, sortProperty));
+        }
+        return sort.and(Sort.by(direction, ID));
+    }
+}
@@ -1,13 +1,21 @@
 package com.school.repository;
 
 import com.school.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student> {
     
     Optional<Student> findByEmail(String email);
     
@@ -16,4 +24,16 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     List<Student> findByGradeLevel(Integer gradeLevel);
     
     List<Student> findByGpaGreaterThan(Double gpa);
+    
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // Forward-only read for exports: rows come from the driver in batches, read-only and bypassing the cache
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT s FROM Student s ORDER BY s.id")
+    Stream<Student> streamAll();
 } 
\ No newline at end of file
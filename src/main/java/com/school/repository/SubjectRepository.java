@@ -2,13 +2,12 @@ package com.school.repository;
 
 import com.school.entity.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
-import java.util.Optional;
 
 @Repository
-public interface SubjectRepository extends JpaRepository<Subject, Long> {
-    
-    Optional<Subject> findByName(String name);
+public interface SubjectRepository extends JpaRepository<Subject, Long>, JpaSpecificationExecutor<Subject>,
+        SubjectRepositoryCustom {
     
     boolean existsByName(String name);
 } 
\ No newline at end of file
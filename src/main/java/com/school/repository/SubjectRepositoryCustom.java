@@ -0,0 +1,11 @@
+package com.school.repository;
+
+import com.school.entity.Subject;
+
+import java.util.Optional;
+
+public interface SubjectRepositoryCustom {
+    
+    // Natural-id lookup, served from the second-level cache when the name has been seen before
+    Optional<Subject> findByName(String name);
+}
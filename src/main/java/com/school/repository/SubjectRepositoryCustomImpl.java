@@ -0,0 +1,21 @@
+package com.school.repository;
+
+import com.school.entity.Subject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class SubjectRepositoryCustomImpl implements SubjectRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<Subject> findByName(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Subject.class)
+                .loadOptional(name);
+    }
+}
@@ -1,14 +1,27 @@
 package com.school.repository;
 
 import com.school.entity.Teacher;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TeacherRepository extends JpaRepository<Teacher, Long> {
-    
-    Optional<Teacher> findByEmail(String email);
+public interface TeacherRepository extends JpaRepository<Teacher, Long>, JpaSpecificationExecutor<Teacher>,
+        TeacherRepositoryCustom {
     
     boolean existsByEmail(String email);
+    
+    // Forward-only read for exports: rows come from the driver in batches, read-only and bypassing the cache
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT t FROM Teacher t ORDER BY t.id")
+    Stream<Teacher> streamAll();
 } 
\ No newline at end of file
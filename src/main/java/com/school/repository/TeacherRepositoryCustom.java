@@ -0,0 +1,11 @@
+package com.school.repository;
+
+import com.school.entity.Teacher;
+
+import java.util.Optional;
+
+public interface TeacherRepositoryCustom {
+    
+    // Natural-id lookup, served from the second-level cache when the email has been seen before
+    Optional<Teacher> findByEmail(String email);
+}
@@ -0,0 +1,21 @@
+package com.school.repository;
+
+import com.school.entity.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class TeacherRepositoryCustomImpl implements TeacherRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<Teacher> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Teacher.class)
+                .loadOptional(email);
+    }
+}
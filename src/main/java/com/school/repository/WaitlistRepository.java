@@ -0,0 +1,47 @@
+package com.school.repository;
+
+import com.school.dto.WaitlistPosition;
+import com.school.entity.WaitlistEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    // Both counts are range scans of idx_class_waitlist_class, which is in joining order
+    @Query("SELECT new com.school.dto.WaitlistPosition(w.classEntity.id, w.student.id, "
+         + "(SELECT COUNT(x) FROM WaitlistEntry x WHERE x.classEntity.id = w.classEntity.id AND x.id <= w.id), "
+         + "(SELECT COUNT(y) FROM WaitlistEntry y WHERE y.classEntity.id = w.classEntity.id)) "
+         + "FROM WaitlistEntry w WHERE w.classEntity.id = :classId AND w.student.id = :studentId")
+    Optional<WaitlistPosition> findPosition(@Param("classId") Long classId, @Param("studentId") Long studentId);
+    
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.classEntity.id = :classId ORDER BY w.id")
+    List<WaitlistEntry> findFirstByClassId(@Param("classId") Long classId, Limit limit);
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM class_waitlist WHERE class_id = :classId)", nativeQuery = true)
+    boolean existsByClassId(@Param("classId") Long classId);
+    
+    // Classes with someone waiting and a seat free, i.e. a promotion that has not happened yet.
+    // One branch per condition, so each is a range of idx_classes_seats_remaining (an OR is not)
+    @Query("SELECT c.id FROM WaitlistEntry w JOIN w.classEntity c WHERE c.seatsRemaining > 0 "
+         + "UNION SELECT c.id FROM WaitlistEntry w JOIN w.classEntity c WHERE c.seatsRemaining IS NULL")
+    List<Long> findClassIdsWithFreeSeats();
+    
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.classEntity.id = :classId AND w.student.id = :studentId")
+    int deleteEntry(@Param("classId") Long classId, @Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.classEntity.id = :classId")
+    int deleteByClassId(@Param("classId") Long classId);
+    
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+}
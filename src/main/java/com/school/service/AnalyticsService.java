@@ -0,0 +1,143 @@
+package com.school.service;
+
+import com.school.config.MetricsConfig;
+import com.school.dto.AnalyticsReport;
+import com.school.dto.DistributionStats;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GPA and salary distributions computed by SQL GROUP BY over value buckets and kept as an
+ * in-memory snapshot. Requests read the snapshot, so their cost depends only on the number
+ * of groups and buckets; the snapshot is recomputed on startup and every
+ * {@code school.analytics.refresh-ms}.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class AnalyticsService {
+    
+    public static final String OVERALL = "all";
+    public static final Set<String> STUDENT_GROUPS = Set.of("none", "gradeLevel", "subject");
+    public static final Set<String> TEACHER_GROUPS = Set.of("none", "specialization", "subject");
+    
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+    private static final String NO_GROUP = "(none)";
+    private static final double GPA_RESOLUTION = 0.01;
+    private static final double SALARY_RESOLUTION = 100;
+    private static final int MAX_HISTOGRAM_BINS = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Snapshot snapshot = new Snapshot(null, Map.of());
+    
+    // Metric and grouping ("gpa:gradeLevel") to the distribution of each group
+    private record Snapshot(Instant asOf, Map<String, Map<String, Distribution>> metrics) {}
+    
+    @Autowired
+    public AnalyticsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    public AnalyticsReport getGpaDistribution(String groupBy, double bucketWidth) {
+        return report("gpa", groupBy, STUDENT_GROUPS, bucketWidth, GPA_RESOLUTION);
+    }
+    
+    public AnalyticsReport getSalaryDistribution(String groupBy, double bucketWidth) {
+        return report("salary", groupBy, TEACHER_GROUPS, bucketWidth, SALARY_RESOLUTION);
+    }
+    
+    private AnalyticsReport report(String metric, String groupBy, Set<String> allowed, double bucketWidth,
+                                   double minWidth) {
+        if (!allowed.contains(groupBy)) {
+            throw new IllegalArgumentException("Cannot group " + metric + " by '" + groupBy + "'; allowed: " + allowed);
+        }
+        if (!(bucketWidth >= minWidth)) {
+            throw new IllegalArgumentException("Bucket width must be at least " + minWidth);
+        }
+        Snapshot current = snapshot;
+        Map<String, Distribution> groups = current.metrics().getOrDefault(metric + ":" + groupBy, Map.of());
+        List<DistributionStats> stats = new ArrayList<>(groups.size());
+        for (Map.Entry<String, Distribution> group : groups.entrySet()) {
+            DistributionStats s = group.getValue().toStats(group.getKey(), bucketWidth);
+            if (s.getHistogram().size() > MAX_HISTOGRAM_BINS) {
+                throw new IllegalArgumentException("Bucket width too small: more than " + MAX_HISTOGRAM_BINS + " bins");
+            }
+            stats.add(s);
+        }
+        return new AnalyticsReport(metric, groupBy, current.asOf(), stats);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${school.analytics.refresh-ms}", initialDelayString = "${school.analytics.refresh-ms}")
+    public void refresh() {
+        long started = System.nanoTime();
+        Instant asOf = Instant.now();
+        Map<String, Map<String, Distribution>> metrics = new LinkedHashMap<>();
+    
+        Grouped gpaByGrade = buckets(GPA_RESOLUTION,
+                "SELECT CAST(grade_level AS VARCHAR), ROUND(gpa * 100), COUNT(*), SUM(gpa), MIN(gpa), MAX(gpa) "
+                + "FROM students WHERE gpa IS NOT NULL GROUP BY grade_level, ROUND(gpa * 100) ORDER BY grade_level");
+        metrics.put("gpa:none", Map.of(OVERALL, gpaByGrade.overall()));
+        metrics.put("gpa:gradeLevel", gpaByGrade.groups());
+        // Each student counts once per subject they take, however many of its classes
+        metrics.put("gpa:subject", buckets(GPA_RESOLUTION,
+                "SELECT sub.name, ROUND(s.gpa * 100), COUNT(*), SUM(s.gpa), MIN(s.gpa), MAX(s.gpa) "
+                + "FROM (SELECT DISTINCT c.subject_id, cs.student_id FROM class_students cs "
+                + "JOIN classes c ON c.id = cs.class_id) e "
+                + "JOIN students s ON s.id = e.student_id JOIN subjects sub ON sub.id = e.subject_id "
+                + "WHERE s.gpa IS NOT NULL GROUP BY sub.name, ROUND(s.gpa * 100) ORDER BY sub.name").groups());
+    
+        Grouped salaryBySpecialization = buckets(SALARY_RESOLUTION,
+                "SELECT specialization, ROUND(salary / 100), COUNT(*), SUM(salary), MIN(salary), MAX(salary) "
+                + "FROM teachers WHERE salary IS NOT NULL GROUP BY specialization, ROUND(salary / 100) "
+                + "ORDER BY specialization");
+        metrics.put("salary:none", Map.of(OVERALL, salaryBySpecialization.overall()));
+        metrics.put("salary:specialization", salaryBySpecialization.groups());
+        metrics.put("salary:subject", buckets(SALARY_RESOLUTION,
+                "SELECT sub.name, ROUND(t.salary / 100), COUNT(*), SUM(t.salary), MIN(t.salary), MAX(t.salary) "
+                + "FROM (SELECT DISTINCT subject_id, teacher_id FROM classes) e "
+                + "JOIN teachers t ON t.id = e.teacher_id JOIN subjects sub ON sub.id = e.subject_id "
+                + "WHERE t.salary IS NOT NULL GROUP BY sub.name, ROUND(t.salary / 100) ORDER BY sub.name").groups());
+    
+        snapshot = new Snapshot(asOf, metrics);
+        log.info("Analytics snapshot refreshed in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private record Grouped(Map<String, Distribution> groups, Distribution overall) {}
+    
+    // Rows are (group, bucket, count, sum, min, max), ordered by group; the overall
+    // distribution is accumulated from the same rows
+    private Grouped buckets(double resolution, String sql) {
+        Map<String, Distribution.Builder> builders = new LinkedHashMap<>();
+        Distribution.Builder overall = new Distribution.Builder(resolution);
+        jdbcTemplate.query(sql, rs -> {
+            String group = rs.getString(1);
+            long bucket = rs.getLong(2);
+            long rows = rs.getLong(3);
+            double sum = rs.getDouble(4);
+            double min = rs.getDouble(5);
+            double max = rs.getDouble(6);
+            builders.computeIfAbsent(group == null ? NO_GROUP : group, g -> new Distribution.Builder(resolution))
+                    .add(bucket, rows, sum, min, max);
+            overall.add(bucket, rows, sum, min, max);
+        });
+        Map<String, Distribution> groups = new LinkedHashMap<>();
+        builders.forEach((group, builder) -> groups.put(group, builder.build()));
+        return new Grouped(groups, overall.build());
+    }
+}
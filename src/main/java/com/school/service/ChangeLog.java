@@ -0,0 +1,333 @@
+package com.school.service;
+
+import com.school.dto.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of committed changes, read by {@code GET /api/changes?since=}. Services
+ * report each write and it is appended once the transaction commits, so rolled-back work never
+ * shows up and the commit waits for nothing but a copy into mapped memory; the pages are
+ * forced to disk every flush-ms. A change committed just before the process dies can be lost.
+ *
+ * <p>The log is a directory of {@link ChangeLogSegment} files. A full segment is closed and the
+ * next one started. Compaction rewrites the closed segments as one that keeps only the newest
+ * event per entity (per student for enrollments), so the log grows with the number of entities
+ * rather than the number of writes. Offsets are never reused, so a consumer that falls behind a
+ * compaction only misses events that a later one supersedes.
+ *
+ * <p>Without a configured path the log lives in a new temporary directory that is removed on
+ * shutdown, so instances of the in-memory application never share or lock each other's log.
+ */
+@Component
+public class ChangeLog {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeLog.class);
+    
+    private static final String COMPACTING = ".compacting";
+    
+    private record Change(ChangeEvent.Entity entity, ChangeEvent.Type type, long id, long relatedId,
+                          Supplier<Long> version) {}
+    
+    // What compaction keeps the newest event of
+    private record Key(byte entity, long id, long relatedId) {}
+    
+    private final Path directory;
+    private final boolean temporary;
+    private final int segmentBytes;
+    private final FileChannel lock;
+    private final Object compaction = new Object();
+    
+    // Oldest first, appended to at the end; replaced rather than modified, so readers iterate a snapshot
+    private volatile List<ChangeLogSegment> segments;
+    // Written under this
+    private volatile long nextOffset;
+    
+    @Autowired
+    public ChangeLog(@Value("${school.changelog.path:}") String directory,
+                     @Value("${school.changelog.segment-bytes}") int segmentBytes,
+                     @Value("${school.changelog.reset-on-start}") boolean resetOnStart) throws IOException {
+        temporary = directory.isBlank();
+        if (temporary && !resetOnStart) {
+            throw new IllegalStateException("school.changelog.path is required unless reset-on-start is true");
+        }
+        this.directory = temporary ? Files.createTempDirectory("school-changelog-") : Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(this.directory);
+    
+        lock = FileChannel.open(this.directory.resolve("lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (lock.tryLock() == null) {
+            lock.close();
+            throw new IllegalStateException("Change log directory is in use by another process: " + directory);
+        }
+    
+        List<Path> files;
+        try (Stream<Path> list = Files.list(this.directory)) {
+            files = list.filter(path -> path.toString().endsWith(".log") || path.toString().endsWith(COMPACTING))
+                    .sorted()
+                    .toList();
+        }
+        List<ChangeLogSegment> opened = new ArrayList<>();
+        for (Path path : files) {
+            if (resetOnStart || path.toString().endsWith(COMPACTING)) {
+                Files.delete(path);
+            } else {
+                opened.add(ChangeLogSegment.open(path, false));
+            }
+        }
+    
+        // A compaction interrupted before it deleted its inputs leaves them behind its output
+        long floor = Long.MAX_VALUE;
+        for (int i = opened.size() - 1; i >= 0; i--) {
+            ChangeLogSegment segment = opened.get(i);
+            if (segment.base() >= floor) {
+                Files.delete(segment.path());
+                opened.remove(i);
+            } else {
+                floor = segment.coversFrom();
+            }
+        }
+    
+        long next = 0;
+        for (ChangeLogSegment segment : opened) {
+            next = Math.max(next, segment.count() > 0 ? segment.lastOffset() + 1 : segment.base());
+        }
+        ChangeLogSegment last = opened.isEmpty() ? null : opened.get(opened.size() - 1);
+        if (last != null && !last.isCompacted() && !last.isFull()) {
+            opened.set(opened.size() - 1, ChangeLogSegment.open(last.path(), true));
+        } else {
+            next = last == null ? next : Math.max(next, last.base() + 1);
+            opened.add(ChangeLogSegment.create(this.directory, next, segmentBytes));
+        }
+        segments = List.copyOf(opened);
+        nextOffset = next;
+        log.info("Change log at {}: {} segment(s), next offset {}", this.directory, segments.size(), next);
+    }
+    
+    public void created(ChangeEvent.Entity entity, Long id, Supplier<Long> version) {
+        afterCommit(List.of(new Change(entity, ChangeEvent.Type.CREATED, id, 0, version)));
+    }
+    
+    /** Rows inserted together outside JPA, all at the same version. */
+    public void created(ChangeEvent.Entity entity, Collection<Long> ids, long version) {
+        List<Change> changes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            changes.add(new Change(entity, ChangeEvent.Type.CREATED, id, 0, () -> version));
+        }
+        afterCommit(changes);
+    }
+    
+    public void updated(ChangeEvent.Entity entity, Long id, Supplier<Long> version) {
+        afterCommit(List.of(new Change(entity, ChangeEvent.Type.UPDATED, id, 0, version)));
+    }
+    
+    public void deleted(ChangeEvent.Entity entity, Long id) {
+        afterCommit(List.of(new Change(entity, ChangeEvent.Type.DELETED, id, 0, () -> null)));
+    }
+    
+    public void enrolled(Long classId, Collection<Long> studentIds, Supplier<Long> classVersion) {
+        List<Change> changes = new ArrayList<>(studentIds.size());
+        for (Long studentId : studentIds) {
+            changes.add(new Change(ChangeEvent.Entity.CLASS, ChangeEvent.Type.ENROLLED, classId, studentId, classVersion));
+        }
+        afterCommit(changes);
+    }
+    
+    public void removed(Long classId, Long studentId, Supplier<Long> classVersion) {
+        afterCommit(List.of(new Change(ChangeEvent.Entity.CLASS, ChangeEvent.Type.REMOVED, classId, studentId,
+                classVersion)));
+    }
+    
+    /** The offset the next change will get. */
+    public long getNextOffset() {
+        return nextOffset;
+    }
+    
+    /** Up to {@code limit} events with an offset of at least {@code since}, oldest first. */
+    public List<ChangeEvent> read(long since, int limit) {
+        List<ChangeEvent> events = new ArrayList<>(Math.min(limit, 1024));
+        for (ChangeLogSegment segment : segments) {
+            int count = segment.count();
+            if (count == 0 || segment.lastOffset() < since) {
+                continue;
+            }
+            for (int i = segment.search(since); i < count && events.size() < limit; i++) {
+                events.add(segment.read(i));
+            }
+            if (events.size() == limit) {
+                break;
+            }
+        }
+        return events;
+    }
+    
+    @Scheduled(fixedDelayString = "${school.changelog.flush-ms}")
+    public void flush() {
+        active().force();
+    }
+    
+    /** Merges the closed segments into one holding the newest event of each entity or enrollment. */
+    @Scheduled(fixedDelayString = "${school.changelog.compact-ms}")
+    public void compact() {
+        synchronized (compaction) {
+            List<ChangeLogSegment> snapshot = segments;
+            List<ChangeLogSegment> closed = snapshot.subList(0, snapshot.size() - 1);
+            if (closed.isEmpty() || (closed.size() == 1 && closed.get(0).isCompacted())) {
+                return;
+            }
+            try {
+                compact(snapshot, closed);
+            } catch (IOException e) {
+                log.warn("Change log compaction failed; it will be retried", e);
+            }
+        }
+    }
+    
+    @PreDestroy
+    void close() throws IOException {
+        flush();
+        lock.close();
+        if (temporary) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+    
+    private void compact(List<ChangeLogSegment> snapshot, List<ChangeLogSegment> closed) throws IOException {
+        // Newest offset per key across the whole log, the open segment included
+        Map<Key, Long> newest = new HashMap<>();
+        for (ChangeLogSegment segment : snapshot) {
+            int count = segment.count();
+            for (int i = 0; i < count; i++) {
+                newest.put(key(segment, i), segment.offsetAt(i));
+            }
+        }
+    
+        // Written beside the newest input and renamed over it, then the older inputs are deleted
+        ChangeLogSegment target = closed.get(closed.size() - 1);
+        Path temp = directory.resolve(target.path().getFileName() + COMPACTING);
+        int kept = 0;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(1024 * ChangeLogSegment.RECORD_BYTES);
+            chunk.put(ChangeLogSegment.header(closed.get(0).coversFrom(), true));
+            for (ChangeLogSegment segment : closed) {
+                int count = segment.count();
+                for (int i = 0; i < count; i++) {
+                    if (newest.get(key(segment, i)) != segment.offsetAt(i)) {
+                        continue;
+                    }
+                    if (chunk.remaining() < ChangeLogSegment.RECORD_BYTES) {
+                        drain(out, chunk);
+                    }
+                    segment.copyTo(i, chunk);
+                    kept++;
+                }
+            }
+            drain(out, chunk);
+            out.force(true);
+        }
+        Files.move(temp, target.path(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        ChangeLogSegment compacted = ChangeLogSegment.open(target.path(), false);
+    
+        synchronized (this) {
+            // Segments rolled meanwhile were added after the ones compacted
+            List<ChangeLogSegment> current = segments;
+            List<ChangeLogSegment> replaced = new ArrayList<>();
+            replaced.add(compacted);
+            replaced.addAll(current.subList(closed.size(), current.size()));
+            segments = List.copyOf(replaced);
+        }
+        // Readers still holding the old segments keep their mappings after the files are gone
+        for (ChangeLogSegment segment : closed.subList(0, closed.size() - 1)) {
+            Files.deleteIfExists(segment.path());
+        }
+        log.info("Compacted {} change log segment(s) into {}: kept {} event(s)",
+                closed.size(), target.path().getFileName(), kept);
+    }
+    
+    private static Key key(ChangeLogSegment segment, int index) {
+        return new Key(segment.entityAt(index), segment.idAt(index), segment.relatedIdAt(index));
+    }
+    
+    private static void drain(FileChannel out, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+        chunk.clear();
+    }
+    
+    private ChangeLogSegment active() {
+        List<ChangeLogSegment> current = segments;
+        return current.get(current.size() - 1);
+    }
+    
+    private synchronized void append(List<Change> changes) {
+        long timestamp = System.currentTimeMillis();
+        for (Change change : changes) {
+            Long version = change.version().get();
+            while (!active().append(nextOffset, timestamp, change.entity(), change.type(), change.id(),
+                    change.relatedId(), version == null ? -1 : version)) {
+                roll();
+            }
+            nextOffset++;
+        }
+    }
+    
+    private void roll() {
+        active().force();
+        try {
+            List<ChangeLogSegment> rolled = new ArrayList<>(segments);
+            rolled.add(ChangeLogSegment.create(directory, nextOffset, segmentBytes));
+            segments = List.copyOf(rolled);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void afterCommit(List<Change> changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(changes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The data is committed either way; a failed append must not fail the request
+                try {
+                    append(changes);
+                } catch (RuntimeException e) {
+                    log.error("Could not append {} change(s) to the change log", changes.size(), e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,233 @@
+package com.school.service;
+
+import com.school.dto.ChangeEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * One file of the {@link ChangeLog}: a header followed by fixed-size records in offset order,
+ * memory-mapped whole. The newest segment is created at its full size and filled in place;
+ * older ones are only read. Offsets rise through a segment but have gaps once it has been
+ * compacted, so lookups binary-search the records.
+ */
+final class ChangeLogSegment {
+    
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 48;
+    
+    // Header: magic, format, flags, first offset the segment stands for
+    private static final int MAGIC = 0x53434C47;
+    private static final short FORMAT = 1;
+    private static final short COMPACTED = 1;
+    
+    // Record fields; a slot with entity 0 or a bad checksum (an unwritten or torn record) ends the segment
+    private static final int OFFSET = 0;
+    private static final int TIMESTAMP = 8;
+    private static final int ID = 16;
+    private static final int RELATED_ID = 24;
+    private static final int VERSION = 32;
+    private static final int ENTITY = 40;
+    private static final int TYPE = 41;
+    private static final int CHECKSUM = 44;
+    
+    private static final ChangeEvent.Entity[] ENTITIES = ChangeEvent.Entity.values();
+    private static final ChangeEvent.Type[] TYPES = ChangeEvent.Type.values();
+    
+    private final Path path;
+    private final long base;
+    private final long coversFrom;
+    private final boolean compacted;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    // Written after the record it counts, by the one thread appending under the ChangeLog lock
+    private volatile int count;
+    
+    private ChangeLogSegment(Path path, long base, long coversFrom, boolean compacted, MappedByteBuffer buffer) {
+        this.path = path;
+        this.base = base;
+        this.coversFrom = coversFrom;
+        this.compacted = compacted;
+        this.buffer = buffer;
+        this.capacity = (buffer.capacity() - HEADER_BYTES) / RECORD_BYTES;
+    }
+    
+    static String fileName(long base) {
+        return String.format("%020d.log", base);
+    }
+    
+    /** A new, empty segment of {@code bytes} whose first record will have offset {@code base}. */
+    static ChangeLogSegment create(Path directory, long base, int bytes) throws IOException {
+        Path path = directory.resolve(fileName(base));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.put(0, header(base, false), 0, HEADER_BYTES);
+            return new ChangeLogSegment(path, base, base, false, buffer);
+        }
+    }
+    
+    static ChangeLogSegment open(Path path, boolean writable) throws IOException {
+        String name = path.getFileName().toString();
+        long base = Long.parseLong(name.substring(0, name.length() - ".log".length()));
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getShort(4) != FORMAT) {
+                throw new IOException("Not a change log segment: " + path);
+            }
+            ChangeLogSegment segment = new ChangeLogSegment(path, base, buffer.getLong(8),
+                    (buffer.getShort(6) & COMPACTED) != 0, buffer);
+            segment.count = segment.scan();
+            return segment;
+        }
+    }
+    
+    static ByteBuffer header(long coversFrom, boolean compacted) {
+        return ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putShort(FORMAT)
+                .putShort(compacted ? COMPACTED : 0)
+                .putLong(coversFrom)
+                .flip();
+    }
+    
+    Path path() {
+        return path;
+    }
+    
+    /** The offset in the file name: the segment's first offset, or for a compacted one its newest input's. */
+    long base() {
+        return base;
+    }
+    
+    /** The lowest offset this segment stands for; a compacted segment replaces every segment from here to its base. */
+    long coversFrom() {
+        return coversFrom;
+    }
+    
+    boolean isCompacted() {
+        return compacted;
+    }
+    
+    int count() {
+        return count;
+    }
+    
+    boolean isFull() {
+        return count == capacity;
+    }
+    
+    /** Writes the record after the last one; false if the segment is full. */
+    boolean append(long offset, long timestamp, ChangeEvent.Entity entity, ChangeEvent.Type type,
+                   long id, long relatedId, long version) {
+        int n = count;
+        if (n == capacity) {
+            return false;
+        }
+        int position = position(n);
+        buffer.putLong(position + OFFSET, offset)
+                .putLong(position + TIMESTAMP, timestamp)
+                .putLong(position + ID, id)
+                .putLong(position + RELATED_ID, relatedId)
+                .putLong(position + VERSION, version)
+                .put(position + ENTITY, (byte) (entity.ordinal() + 1))
+                .put(position + TYPE, (byte) type.ordinal())
+                .putShort(position + TYPE + 1, (short) 0)
+                .putInt(position + CHECKSUM, checksum(position));
+        count = n + 1;
+        return true;
+    }
+    
+    long offsetAt(int index) {
+        return buffer.getLong(position(index) + OFFSET);
+    }
+    
+    byte entityAt(int index) {
+        return buffer.get(position(index) + ENTITY);
+    }
+    
+    long idAt(int index) {
+        return buffer.getLong(position(index) + ID);
+    }
+    
+    long relatedIdAt(int index) {
+        return buffer.getLong(position(index) + RELATED_ID);
+    }
+    
+    long lastOffset() {
+        return offsetAt(count - 1);
+    }
+    
+    /** Index of the first record with an offset of at least {@code offset}; {@link #count()} if none. */
+    int search(long offset) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsetAt(mid) < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    ChangeEvent read(int index) {
+        int position = position(index);
+        long relatedId = buffer.getLong(position + RELATED_ID);
+        long version = buffer.getLong(position + VERSION);
+        return new ChangeEvent(
+                buffer.getLong(position + OFFSET),
+                Instant.ofEpochMilli(buffer.getLong(position + TIMESTAMP)),
+                ENTITIES[buffer.get(position + ENTITY) - 1],
+                TYPES[buffer.get(position + TYPE)],
+                buffer.getLong(position + ID),
+                relatedId == 0 ? null : relatedId,
+                version < 0 ? null : version);
+    }
+    
+    /** Copies the raw record into {@code target}, for compaction. */
+    void copyTo(int index, ByteBuffer target) {
+        target.put(buffer.slice(position(index), RECORD_BYTES));
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    private static int position(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+    
+    private int checksum(int position) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position, CHECKSUM));
+        return (int) crc.getValue();
+    }
+    
+    // Records up to the first one that was never completely written
+    private int scan() {
+        long previous = Long.MIN_VALUE;
+        for (int n = 0; n < capacity; n++) {
+            int position = position(n);
+            byte entity = buffer.get(position + ENTITY);
+            if (entity < 1 || entity > ENTITIES.length
+                    || buffer.getInt(position + CHECKSUM) != checksum(position)
+                    || buffer.getLong(position + OFFSET) <= previous) {
+                return n;
+            }
+            previous = buffer.getLong(position + OFFSET);
+        }
+        return capacity;
+    }
+}
@@ -1,67 +1,232 @@
 package com.school.service;
 
+import com.school.config.MetricsConfig;
+import com.school.dto.ChangeEvent;
+import com.school.dto.ClassSummary;
+import com.school.dto.EnrollmentResult;
+import com.school.dto.WeeklyTimetable;
 import com.school.entity.Class;
-import com.school.entity.Student;
 import com.school.entity.Subject;
 import com.school.entity.Teacher;
 import com.school.repository.ClassRepository;
+import com.school.repository.EnrollmentBatchRepository;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetRequest;
+import com.school.repository.WaitlistRepository;
+import com.school.service.ResourceVersions.Resource;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ClassService {
     
+    public static final Set<String> SORTABLE = Set.of("name");
+    public static final int MAX_BULK_ENROLLMENT = 1000;
+    
     private final ClassRepository classRepository;
     private final SubjectService subjectService;
     private final TeacherService teacherService;
     private final StudentService studentService;
+    private final EnrollmentBatchRepository enrollmentBatchRepository;
+    private final TimetableIndex timetableIndex;
+    private final TimetableCache timetableCache;
+    private final ResourceVersions versions;
+    private final WaitlistRepository waitlistRepository;
+    private final ApplicationEventPublisher events;
+    private final ChangeLog changeLog;
     
     @Autowired
     public ClassService(ClassRepository classRepository, SubjectService subjectService,
-                       TeacherService teacherService, StudentService studentService) {
+                       TeacherService teacherService, StudentService studentService,
+                       EnrollmentBatchRepository enrollmentBatchRepository, TimetableIndex timetableIndex,
+                       TimetableCache timetableCache, ResourceVersions versions,
+                       WaitlistRepository waitlistRepository, ApplicationEventPublisher events,
+                       ChangeLog changeLog) {
         this.classRepository = classRepository;
         this.subjectService = subjectService;
         this.teacherService = teacherService;
         this.studentService = studentService;
+        this.enrollmentBatchRepository = enrollmentBatchRepository;
+        this.timetableIndex = timetableIndex;
+        this.timetableCache = timetableCache;
+        this.versions = versions;
+        this.waitlistRepository = waitlistRepository;
+        this.events = events;
+        this.changeLog = changeLog;
     }
     
+    @Transactional(readOnly = true)
     public List<Class> getAllClasses() {
         return classRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<ClassSummary> getAllClasses(KeysetRequest page) {
+        return classRepository.findSummaries(null, page.requireSortableBy(SORTABLE));
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Class> getClassById(Long id) {
         return classRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public Optional<ClassSummary> getClassSummaryById(Long id) {
+        return classRepository.findSummaryById(id);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Class> getClassesBySubject(Long subjectId) {
         Subject subject = subjectService.getSubjectById(subjectId)
                 .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
         return classRepository.findBySubject(subject);
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<ClassSummary> getClassesBySubject(Long subjectId, KeysetRequest page) {
+        if (!subjectService.existsById(subjectId)) {
+            throw new RuntimeException("Subject not found with id: " + subjectId);
+        }
+        return classRepository.findSummaries(
+                (root, query, cb) -> cb.equal(root.get("subject").get("id"), subjectId),
+                page.requireSortableBy(SORTABLE));
+    }
+    
+    @Transactional(readOnly = true)
     public List<Class> getClassesByTeacher(Long teacherId) {
         Teacher teacher = teacherService.getTeacherById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
         return classRepository.findByTeacher(teacher);
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<ClassSummary> getClassesByTeacher(Long teacherId, KeysetRequest page) {
+        if (!teacherService.existsById(teacherId)) {
+            throw new RuntimeException("Teacher not found with id: " + teacherId);
+        }
+        return classRepository.findSummaries(
+                (root, query, cb) -> cb.equal(root.get("teacher").get("id"), teacherId),
+                page.requireSortableBy(SORTABLE));
+    }
+    
+    @Transactional(readOnly = true)
     public List<Class> getClassesByStudent(Long studentId) {
         return classRepository.findByStudentId(studentId);
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<ClassSummary> getClassesByStudent(Long studentId, KeysetRequest page) {
+        return classRepository.findSummaries(
+                (root, query, cb) -> cb.equal(root.join("students", JoinType.INNER).get("id"), studentId),
+                page.requireSortableBy(SORTABLE));
+    }
+    
+    @Transactional(readOnly = true)
     public List<Class> getClassesBySemesterAndYear(String semester, String academicYear) {
         return classRepository.findBySemesterAndAcademicYear(semester, academicYear);
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<ClassSummary> getClassesBySemesterAndYear(String semester, String academicYear, KeysetRequest page) {
+        return classRepository.findSummaries(
+                (root, query, cb) -> cb.and(cb.equal(root.get("semester"), semester),
+                        cb.equal(root.get("academicYear"), academicYear)),
+                page.requireSortableBy(SORTABLE).fixing("semester", "academicYear"));
+    }
+    
+    @Transactional(readOnly = true)
     public List<Class> getAvailableClasses() {
         return classRepository.findAvailableClasses();
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<ClassSummary> getAvailableClasses(KeysetRequest page) {
+        return classRepository.findSummaries(
+                (root, query, cb) -> cb.greaterThan(root.<Integer>get("seatsRemaining"), 0),
+                page.requireSortableBy(SORTABLE));
+    }
+    
+    @Transactional(readOnly = true)
+    public WeeklyTimetable getStudentTimetable(Long studentId) {
+        return timetableCache.get(TimetableCache.Owner.STUDENT, studentId, () -> {
+            if (!studentService.existsById(studentId)) {
+                throw new RuntimeException("Student not found with id: " + studentId);
+            }
+            return buildTimetable(classRepository.findSummariesByStudentId(studentId));
+        });
+    }
+    
+    @Transactional(readOnly = true)
+    public WeeklyTimetable getTeacherTimetable(Long teacherId) {
+        return timetableCache.get(TimetableCache.Owner.TEACHER, teacherId, () -> {
+            if (!teacherService.existsById(teacherId)) {
+                throw new RuntimeException("Teacher not found with id: " + teacherId);
+            }
+            return buildTimetable(classRepository.findSummariesByTeacherId(teacherId));
+        });
+    }
+    
+    // Groups classes by term, then by meeting day, each day ordered by start time
+    private static WeeklyTimetable buildTimetable(List<ClassSummary> classes) {
+        List<ClassSummary> ordered = new ArrayList<>(classes);
+        ordered.sort(Comparator.comparing(ClassSummary::getAcademicYear, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(ClassSummary::getSemester, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(ClassSummary::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(ClassSummary::getId));
+        
+        List<WeeklyTimetable.Term> terms = new ArrayList<>();
+        Map<DayOfWeek, List<WeeklyTimetable.Slot>> days = null;
+        List<WeeklyTimetable.Slot> unscheduled = null;
+        ClassSummary previous = null;
+        for (ClassSummary c : ordered) {
+            if (previous == null || !Objects.equals(previous.getSemester(), c.getSemester())
+                    || !Objects.equals(previous.getAcademicYear(), c.getAcademicYear())) {
+                days = new EnumMap<>(DayOfWeek.class);
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    days.put(day, new ArrayList<>());
+                }
+                unscheduled = new ArrayList<>();
+                terms.add(new WeeklyTimetable.Term(c.getSemester(), c.getAcademicYear(), days, unscheduled));
+            }
+            previous = c;
+            
+            WeeklyTimetable.Slot slot = new WeeklyTimetable.Slot(c);
+            Schedule schedule;
+            try {
+                schedule = Schedule.of(c.getDaysOfWeek(), c.getStartTime(), c.getEndTime());
+            } catch (IllegalArgumentException e) {
+                schedule = null;
+            }
+            if (schedule == null) {
+                unscheduled.add(slot);
+                continue;
+            }
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (schedule.meetsOn(day)) {
+                    days.get(day).add(slot);
+                }
+            }
+        }
+        return new WeeklyTimetable(terms);
+    }
+    
     public Class createClass(Class classEntity) {
         // Validate subject exists using subjectId
         if (classEntity.getSubjectId() == null) {
@@ -79,12 +244,30 @@ public class ClassService {
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + classEntity.getTeacherId()));
         classEntity.setTeacher(teacher);
         
-        return classRepository.save(classEntity);
+        // Saved first so the index can key the new class by its id; a conflict rolls the insert back
+        Class saved = classRepository.save(classEntity);
+        timetableIndex.placeClass(saved, List::of);
+        timetableCache.evictTeacher(teacher.getId());
+        versions.saved(Resource.CLASSES, saved.getId(), saved::getVersion);
+        changeLog.created(ChangeEvent.Entity.CLASS, saved.getId(), saved::getVersion);
+        return saved;
     }
     
-    public Class updateClass(Long id, Class classDetails) {
-        Class classEntity = classRepository.findById(id)
+    /** {@code expectedVersion} is the If-Match version, or null to update unconditionally. */
+    public Class updateClass(Long id, Class classDetails, Long expectedVersion) {
+        // Locked like an enrollment, so the enrolled count cannot grow past the capacity checked here
+        Class classEntity = classRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Class not found with id: " + id));
+        VersionMismatchException.check("Class", id, expectedVersion, classEntity.getVersion());
+        Integer newCapacity = classDetails.getCapacity();
+        if (newCapacity != null && newCapacity < classEntity.getEnrolledCount()) {
+            throw new IllegalArgumentException("Capacity " + newCapacity + " is below the "
+                    + classEntity.getEnrolledCount() + " students already enrolled");
+        }
+        Integer previousCapacity = classEntity.getCapacity();
+        boolean sameSchedule = Objects.equals(classEntity.getDaysOfWeek(), classDetails.getDaysOfWeek())
+                && Objects.equals(classEntity.getStartTime(), classDetails.getStartTime())
+                && Objects.equals(classEntity.getEndTime(), classDetails.getEndTime());
         
         classEntity.setName(classDetails.getName());
         classEntity.setDescription(classDetails.getDescription());
@@ -110,52 +293,178 @@ public class ClassService {
             classEntity.setTeacher(teacher);
         }
         
-        return classRepository.save(classEntity);
+        // Reject double-booking of the teacher, room or enrolled students. A stored schedule that
+        // does not parse (saved before schedules were checked) stays unscheduled, as it is after
+        // TimetableIndex.rebuild(); only a new or changed schedule has to parse
+        try {
+            timetableIndex.placeClass(classEntity, () -> classRepository.findStudentIdsByClassId(id));
+        } catch (IllegalArgumentException e) {
+            if (!sameSchedule) {
+                throw e;
+            }
+        }
+        
+        // Every cached timetable showing the class, plus the teacher's in case it is not cached yet
+        timetableCache.evictClass(id);
+        timetableCache.evictTeacher(classEntity.getTeacher().getId());
+        
+        Class saved = classRepository.save(classEntity);
+        versions.saved(Resource.CLASSES, id, saved::getVersion);
+        changeLog.updated(ChangeEvent.Entity.CLASS, id, saved::getVersion);
+        
+        // Seats added by a capacity increase go to the waitlist first
+        Integer capacity = saved.getCapacity();
+        if (previousCapacity != null && (capacity == null || capacity > previousCapacity)) {
+            events.publishEvent(new WaitlistPromoter.SeatsFreed(id));
+        }
+        return saved;
     }
     
-    public void deleteClass(Long id) {
+    public void deleteClass(Long id, Long expectedVersion) {
         Class classEntity = classRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Class not found with id: " + id));
+        VersionMismatchException.check("Class", id, expectedVersion, classEntity.getVersion());
+        
+        timetableIndex.removeClass(id, classRepository.findStudentIdsByClassId(id));
+        timetableCache.evictClass(id);
         
-        // Remove all students from the class
-        classEntity.getStudents().clear();
+        // Remove all enrollments and waitlist entries without loading them
+        classRepository.deleteEnrollments(id);
+        waitlistRepository.deleteByClassId(id);
         
         classRepository.delete(classEntity);
+        versions.deleted(Resource.CLASSES, id);
+        changeLog.deleted(ChangeEvent.Entity.CLASS, id);
     }
     
     public void enrollStudent(Long classId, Long studentId) {
-        Class classEntity = classRepository.findById(classId)
+        // Lock the class row so concurrent enrollments for the same class run one at a time;
+        // the seat count and the insert below are then atomic with respect to each other
+        Class classEntity = classRepository.findByIdForUpdate(classId)
                 .orElseThrow(() -> new RuntimeException("Class not found with id: " + classId));
         
-        Student student = studentService.getStudentById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
+        if (!studentService.existsById(studentId)) {
+            throw new RuntimeException("Student not found with id: " + studentId);
+        }
         
-        // Check if class is full
-        if (classEntity.getStudents().size() >= classEntity.getCapacity()) {
+        // Check if class is full; while students are waiting, free seats are theirs
+        if (!classEntity.hasFreeSeat() || waitlistRepository.existsByClassId(classId)) {
             throw new RuntimeException("Class is full");
         }
         
         // Check if student is already enrolled
-        if (classEntity.getStudents().contains(student)) {
+        if (classRepository.isEnrolled(classId, studentId)) {
             throw new RuntimeException("Student is already enrolled in this class");
         }
         
-        classEntity.addStudent(student);
-        classRepository.save(classEntity);
+        // Check the student's other classes for an overlapping slot
+        timetableIndex.enroll(classId, studentId);
+        
+        classRepository.insertEnrollment(classId, studentId);
+        classEntity.adjustEnrolledCount(1);
+        timetableCache.evictStudent(studentId);
+        versions.saved(Resource.CLASSES, classId, classEntity::getVersion);
+        changeLog.enrolled(classId, List.of(studentId), classEntity::getVersion);
+    }
+    
+    /**
+     * Bulk enrollment for API callers. While students are waiting for the class its free seats
+     * are theirs, so everyone else is reported as {@code OVER_CAPACITY}, as in {@link #enrollStudent}.
+     */
+    public List<EnrollmentResult> enrollStudents(Long classId, List<Long> studentIds) {
+        return enrollStudents(classId, studentIds, false);
+    }
+    
+    /** Enrolls students taken from the head of the class's waitlist, ahead of the waitlist check. */
+    public List<EnrollmentResult> enrollFromWaitlist(Long classId, List<Long> studentIds) {
+        return enrollStudents(classId, studentIds, true);
+    }
+    
+    private List<EnrollmentResult> enrollStudents(Long classId, List<Long> studentIds, boolean fromWaitlist) {
+        if (studentIds.size() > MAX_BULK_ENROLLMENT) {
+            throw new RuntimeException("At most " + MAX_BULK_ENROLLMENT + " students can be enrolled per request");
+        }
+        
+        // Same per-class row lock as enrollStudent, taken once for the whole batch
+        Class classEntity = classRepository.findByIdForUpdate(classId)
+                .orElseThrow(() -> new RuntimeException("Class not found with id: " + classId));
+        
+        List<EnrollmentResult> results = new ArrayList<>(studentIds.size());
+        if (studentIds.isEmpty()) {
+            return results;
+        }
+        
+        Set<Long> existing = studentService.findExistingIds(studentIds);
+        Set<Long> enrolled = new HashSet<>(classRepository.findEnrolledStudentIds(classId, studentIds));
+        long seatsLeft = classEntity.getSeatsRemaining() == null
+                ? Long.MAX_VALUE
+                : classEntity.getSeatsRemaining();
+        if (!fromWaitlist && waitlistRepository.existsByClassId(classId)) {
+            seatsLeft = 0;
+        }
+        
+        // Seats are handed out in request order
+        List<Long> toInsert = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            EnrollmentResult.Status status;
+            if (!existing.contains(studentId)) {
+                status = EnrollmentResult.Status.NOT_FOUND;
+            } else if (!enrolled.add(studentId)) {
+                status = EnrollmentResult.Status.DUPLICATE;
+            } else if (seatsLeft <= 0) {
+                status = EnrollmentResult.Status.OVER_CAPACITY;
+            } else if (timetableIndex.tryEnroll(classId, studentId) != null) {
+                status = EnrollmentResult.Status.SCHEDULE_CONFLICT;
+            } else {
+                status = EnrollmentResult.Status.ENROLLED;
+                toInsert.add(studentId);
+                seatsLeft--;
+            }
+            results.add(new EnrollmentResult(studentId, status));
+        }
+        
+        enrollmentBatchRepository.insertEnrollments(classId, toInsert);
+        classEntity.adjustEnrolledCount(toInsert.size());
+        timetableCache.evictStudents(toInsert);
+        if (!toInsert.isEmpty()) {
+            versions.saved(Resource.CLASSES, classId, classEntity::getVersion);
+            changeLog.enrolled(classId, toInsert, classEntity::getVersion);
+        }
+        return results;
     }
     
     public void removeStudent(Long classId, Long studentId) {
-        Class classEntity = classRepository.findById(classId)
+        Class classEntity = classRepository.findByIdForUpdate(classId)
                 .orElseThrow(() -> new RuntimeException("Class not found with id: " + classId));
         
-        Student student = studentService.getStudentById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
+        if (!studentService.existsById(studentId)) {
+            throw new RuntimeException("Student not found with id: " + studentId);
+        }
         
-        if (!classEntity.getStudents().contains(student)) {
+        if (classRepository.deleteEnrollment(classId, studentId) == 0) {
             throw new RuntimeException("Student is not enrolled in this class");
         }
-        
-        classEntity.removeStudent(student);
-        classRepository.save(classEntity);
+        timetableIndex.unenroll(classId, studentId);
+        timetableCache.evictStudent(studentId);
+        classEntity.adjustEnrolledCount(-1);
+        versions.saved(Resource.CLASSES, classId, classEntity::getVersion);
+        changeLog.removed(classId, studentId, classEntity::getVersion);
+        events.publishEvent(new WaitlistPromoter.SeatsFreed(classId));
+    }
+    
+    /**
+     * Recounts class_students for every class whose enrolled_count has drifted and
+     * corrects the counter under the class row lock. Returns the number of classes fixed.
+     */
+    public int reconcileEnrolledCounts() {
+        List<Long> drifted = classRepository.findClassIdsWithEnrolledCountDrift();
+        for (Long classId : drifted) {
+            classRepository.findByIdForUpdate(classId).ifPresent(classEntity -> {
+                classEntity.setEnrolledCount((int) classRepository.countEnrolled(classId));
+                versions.saved(Resource.CLASSES, classId, classEntity::getVersion);
+                changeLog.updated(ChangeEvent.Entity.CLASS, classId, classEntity::getVersion);
+            });
+        }
+        return drifted.size();
     }
 } 
\ No newline at end of file
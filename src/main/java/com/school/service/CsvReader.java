@@ -0,0 +1,107 @@
+package com.school.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma-separated, double-quoted fields may contain commas,
+ * doubled quotes and line breaks; a closing quote must be followed by a comma or the end of the
+ * record. CRLF, LF and a lone CR each end a line. Reads one record at a time so uploads of any
+ * size are parsed in constant memory.
+ */
+final class CsvReader {
+    
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int pending = -2;
+    private int previous = -1;
+    private long line = 1;
+    private long recordLine;
+    
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+    
+    /** The next record, or null at end of input. Empty fields are returned as null. */
+    List<String> next() throws IOException {
+        int c = read();
+        // Skip blank lines between records
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> record = new ArrayList<>();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else if (following != ',' && following != '\r' && following != '\n' && following != -1) {
+                        throw new IllegalArgumentException("Unexpected text after the closing quote on line " + line);
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                record.add(take(wasQuoted));
+                wasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pending = following;
+                    }
+                }
+                record.add(take(wasQuoted));
+                return record;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+    
+    /** Line number on which the record last returned by {@link #next()} starts. */
+    long getRecordLine() {
+        return recordLine;
+    }
+    
+    private String take(boolean quoted) {
+        String value = field.toString();
+        field.setLength(0);
+        return value.isEmpty() && !quoted ? null : value;
+    }
+    
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        int c = reader.read();
+        // The LF of a CRLF was counted with its CR
+        if (c == '\r' || (c == '\n' && previous != '\r')) {
+            line++;
+        }
+        previous = c;
+        return c;
+    }
+}
@@ -0,0 +1,116 @@
+package com.school.service;
+
+import com.school.dto.DistributionStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts of a numeric column rounded to a fixed resolution (0.01 GPA points, 100 salary units).
+ * Built from GROUP BY bucket rows, so its size depends on the value range, not the row count,
+ * and every statistic is computed in time proportional to the number of distinct buckets.
+ */
+public final class Distribution {
+    
+    private final double resolution;
+    private final long[] buckets;
+    private final long[] counts;
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+    
+    private Distribution(double resolution, long[] buckets, long[] counts, long count, double sum,
+                         double min, double max) {
+        this.resolution = resolution;
+        this.buckets = buckets;
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    /** Nearest-rank percentile, accurate to the resolution. */
+    public double percentile(double p) {
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, Math.max(min, round(buckets[i] * resolution)));
+            }
+        }
+        return max;
+    }
+    
+    public DistributionStats toStats(String group, double bucketWidth) {
+        List<DistributionStats.Bucket> histogram = new ArrayList<>();
+        long bin = Long.MIN_VALUE;
+        long binCount = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            long b = (long) Math.floor(buckets[i] * resolution / bucketWidth + 1e-9);
+            if (b != bin && binCount > 0) {
+                histogram.add(new DistributionStats.Bucket(round(bin * bucketWidth), round((bin + 1) * bucketWidth), binCount));
+                binCount = 0;
+            }
+            bin = b;
+            binCount += counts[i];
+        }
+        if (binCount > 0) {
+            histogram.add(new DistributionStats.Bucket(round(bin * bucketWidth), round((bin + 1) * bucketWidth), binCount));
+        }
+        Map<String, Double> percentiles = new TreeMap<>();
+        for (int p : new int[] {10, 25, 50, 75, 90, 99}) {
+            percentiles.put("p" + p, count == 0 ? null : percentile(p));
+        }
+        return new DistributionStats(group, count, count == 0 ? null : sum / count,
+                count == 0 ? null : min, count == 0 ? null : max, percentiles, histogram);
+    }
+    
+    // Drops binary floating-point noise such as 3.0100000000000002
+    private static double round(double value) {
+        return Math.round(value * 1e9) / 1e9;
+    }
+    
+    /** Accumulates bucket rows; rows for the same bucket may arrive more than once. */
+    public static final class Builder {
+    
+        private final double resolution;
+        private final TreeMap<Long, Long> counts = new TreeMap<>();
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+    
+        public Builder(double resolution) {
+            this.resolution = resolution;
+        }
+    
+        public Builder add(long bucket, long rows, double rowSum, double rowMin, double rowMax) {
+            counts.merge(bucket, rows, Long::sum);
+            count += rows;
+            sum += rowSum;
+            min = Math.min(min, rowMin);
+            max = Math.max(max, rowMax);
+            return this;
+        }
+    
+        public Distribution build() {
+            long[] keys = new long[counts.size()];
+            long[] values = new long[counts.size()];
+            int i = 0;
+            for (Map.Entry<Long, Long> e : counts.entrySet()) {
+                keys[i] = e.getKey();
+                values[i++] = e.getValue();
+            }
+            return new Distribution(resolution, keys, values, count, sum, min, max);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.school.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.config.MetricsConfig;
+import com.school.dto.ClassSummary;
+import com.school.entity.Student;
+import com.school.entity.Teacher;
+import com.school.repository.ClassRepository;
+import com.school.repository.StudentRepository;
+import com.school.repository.TeacherRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a whole table as NDJSON or CSV straight from a forward-only query. Rows are written
+ * as they are read and the persistence context is cleared every {@link #CLEAR_EVERY} rows, so
+ * memory use does not grow with the table.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ExportService {
+    
+    static final int CLEAR_EVERY = 1000;
+    
+    public enum Dataset {
+        STUDENTS, TEACHERS, CLASSES, ENROLLMENTS;
+    
+        public static Dataset parse(String value) {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+    
+    public enum Format {
+        NDJSON("application/x-ndjson"), CSV("text/csv");
+    
+        private final String contentType;
+    
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+    
+        public String getContentType() {
+            return contentType;
+        }
+    
+        public String getExtension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    
+        public static Format parse(String value) {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+    
+    private record Column<T>(String name, Function<T, Object> value) {}
+    
+    private record Enrollment(Object classId, Object studentId) {}
+    
+    private static final List<Column<Student>> STUDENT_COLUMNS = List.of(
+            new Column<>("id", Student::getId),
+            new Column<>("firstName", Student::getFirstName),
+            new Column<>("lastName", Student::getLastName),
+            new Column<>("email", Student::getEmail),
+            new Column<>("phone", Student::getPhone),
+            new Column<>("dateOfBirth", Student::getDateOfBirth),
+            new Column<>("enrollmentDate", Student::getEnrollmentDate),
+            new Column<>("address", Student::getAddress),
+            new Column<>("gradeLevel", Student::getGradeLevel),
+            new Column<>("gpa", Student::getGpa));
+    
+    private static final List<Column<Teacher>> TEACHER_COLUMNS = List.of(
+            new Column<>("id", Teacher::getId),
+            new Column<>("firstName", Teacher::getFirstName),
+            new Column<>("lastName", Teacher::getLastName),
+            new Column<>("email", Teacher::getEmail),
+            new Column<>("phone", Teacher::getPhone),
+            new Column<>("dateOfBirth", Teacher::getDateOfBirth),
+            new Column<>("hireDate", Teacher::getHireDate),
+            new Column<>("specialization", Teacher::getSpecialization),
+            new Column<>("salary", Teacher::getSalary));
+    
+    private static final List<Column<ClassSummary>> CLASS_COLUMNS = List.of(
+            new Column<>("id", ClassSummary::getId),
+            new Column<>("name", ClassSummary::getName),
+            new Column<>("description", ClassSummary::getDescription),
+            new Column<>("roomNumber", ClassSummary::getRoomNumber),
+            new Column<>("capacity", ClassSummary::getCapacity),
+            new Column<>("startTime", ClassSummary::getStartTime),
+            new Column<>("endTime", ClassSummary::getEndTime),
+            new Column<>("daysOfWeek", ClassSummary::getDaysOfWeek),
+            new Column<>("semester", ClassSummary::getSemester),
+            new Column<>("academicYear", ClassSummary::getAcademicYear),
+            new Column<>("enrolledCount", ClassSummary::getEnrolledCount),
+            new Column<>("seatsRemaining", ClassSummary::getSeatsRemaining),
+            new Column<>("subjectId", ClassSummary::getSubjectId),
+            new Column<>("subjectName", ClassSummary::getSubjectName),
+            new Column<>("teacherId", ClassSummary::getTeacherId),
+            new Column<>("teacherName", ClassSummary::getTeacherName));
+    
+    private static final List<Column<Enrollment>> ENROLLMENT_COLUMNS = List.of(
+            new Column<>("classId", Enrollment::classId),
+            new Column<>("studentId", Enrollment::studentId));
+    
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final ClassRepository classRepository;
+    private final ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    public ExportService(StudentRepository studentRepository, TeacherRepository teacherRepository,
+                         ClassRepository classRepository, ObjectMapper objectMapper) {
+        this.studentRepository = studentRepository;
+        this.teacherRepository = teacherRepository;
+        this.classRepository = classRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    /** Streams every row of the dataset to {@code out} and returns the number of rows written. */
+    public long export(Dataset dataset, Format format, OutputStream out) throws IOException {
+        // Without lazy execution H2 materializes the whole result before returning the first row
+        setLazyQueryExecution(true);
+        try {
+            return switch (dataset) {
+                case STUDENTS -> {
+                    try (Stream<Student> rows = studentRepository.streamAll()) {
+                        yield write(rows, STUDENT_COLUMNS, format, out);
+                    }
+                }
+                case TEACHERS -> {
+                    try (Stream<Teacher> rows = teacherRepository.streamAll()) {
+                        yield write(rows, TEACHER_COLUMNS, format, out);
+                    }
+                }
+                case CLASSES -> {
+                    try (Stream<ClassSummary> rows = classRepository.streamSummaries()) {
+                        yield write(rows, CLASS_COLUMNS, format, out);
+                    }
+                }
+                case ENROLLMENTS -> {
+                    try (Stream<Object[]> rows = classRepository.streamEnrollments()) {
+                        yield write(rows.map(r -> new Enrollment(r[0], r[1])), ENROLLMENT_COLUMNS, format, out);
+                    }
+                }
+            };
+        } finally {
+            setLazyQueryExecution(false);
+        }
+    }
+    
+    private <T> long write(Stream<T> rows, List<Column<T>> columns, Format format, OutputStream out)
+            throws IOException {
+        RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(objectMapper, out);
+        writer.begin(columns.stream().map(Column::name).toList());
+        Object[] values = new Object[columns.size()];
+        long count = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            T row = it.next();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = columns.get(i).value().apply(row);
+            }
+            writer.write(values);
+            // Detach what has been written so the persistence context does not grow with the export
+            if (++count % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        }
+        writer.finish();
+        return count;
+    }
+    
+    private void setLazyQueryExecution(boolean lazy) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+            }
+        });
+    }
+    
+    private interface RowWriter {
+    
+        void begin(List<String> columns) throws IOException;
+    
+        void write(Object[] values) throws IOException;
+    
+        void finish() throws IOException;
+    }
+    
+    // One JSON object per line
+    private static final class NdjsonWriter implements RowWriter {
+    
+        private final JsonGenerator generator;
+        private List<String> columns;
+    
+        NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by the newline written after each one, not Jackson's default space
+            this.generator.setRootValueSeparator(null);
+        }
+    
+        @Override
+        public void begin(List<String> columns) {
+            this.columns = columns;
+        }
+    
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+    
+    // RFC 4180: a header row, fields quoted only when they contain a delimiter, quote or line break
+    private static final class CsvWriter implements RowWriter {
+    
+        private final Writer writer;
+    
+        CsvWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+    
+        @Override
+        public void begin(List<String> columns) throws IOException {
+            write(columns.toArray());
+        }
+    
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+    
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.school.service;
+
+import com.school.config.MetricsConfig;
+import com.school.dto.ChangeEvent;
+import com.school.dto.ImportReport;
+import com.school.entity.Student;
+import com.school.entity.Teacher;
+import com.school.service.ResourceVersions.Resource;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bulk CSV import of students and teachers. Rows are parsed as they arrive, checked against the
+ * entities' Bean Validation constraints and an in-memory set of existing emails, and inserted in
+ * JDBC batches. Each batch commits in its own transaction, so a large file never holds one long
+ * transaction, and rows that fail are reported by line number instead of failing the upload.
+ * Malformed CSV part-way through ends the import with the rows read so far committed and the
+ * failing line in the report.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+    
+    static final int BATCH_SIZE = 1000;
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    
+    @FunctionalInterface
+    private interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+    
+    // How one CSV dataset maps onto its table; column names match the export's
+    private record Column<T>(String name, BiConsumer<T, String> setter) {}
+    
+    private record Table<T>(String name, String table, Supplier<T> factory, Map<String, BiConsumer<T, String>> columns,
+                            Set<String> required, String insertSql, Binder<T> binder, Function<T, String> email,
+                            BiConsumer<T, Long> id, Resource resource, ChangeEvent.Entity entity) {}
+    
+    private static final Table<Student> STUDENTS = new Table<>("students", "students", Student::new,
+            columns(c -> {
+                c.put("firstName", Student::setFirstName);
+                c.put("lastName", Student::setLastName);
+                c.put("email", Student::setEmail);
+                c.put("phone", Student::setPhone);
+                c.put("dateOfBirth", (s, v) -> s.setDateOfBirth(LocalDate.parse(v)));
+                c.put("enrollmentDate", (s, v) -> s.setEnrollmentDate(LocalDate.parse(v)));
+                c.put("address", Student::setAddress);
+                c.put("gradeLevel", (s, v) -> s.setGradeLevel(Integer.valueOf(v)));
+                c.put("gpa", (s, v) -> s.setGpa(Double.valueOf(v)));
+            }),
+            Set.of("firstName", "lastName"),
+            "INSERT INTO students (first_name, last_name, email, phone, date_of_birth, enrollment_date, address, "
+                    + "grade_level, gpa) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            (ps, s) -> {
+                ps.setString(1, s.getFirstName());
+                ps.setString(2, s.getLastName());
+                ps.setString(3, s.getEmail());
+                ps.setString(4, s.getPhone());
+                ps.setObject(5, s.getDateOfBirth());
+                ps.setObject(6, s.getEnrollmentDate());
+                ps.setString(7, s.getAddress());
+                ps.setObject(8, s.getGradeLevel());
+                ps.setObject(9, s.getGpa());
+            },
+            Student::getEmail, Student::setId, Resource.STUDENTS, ChangeEvent.Entity.STUDENT);
+    
+    private static final Table<Teacher> TEACHERS = new Table<>("teachers", "teachers", Teacher::new,
+            columns(c -> {
+                c.put("firstName", Teacher::setFirstName);
+                c.put("lastName", Teacher::setLastName);
+                c.put("email", Teacher::setEmail);
+                c.put("phone", Teacher::setPhone);
+                c.put("dateOfBirth", (t, v) -> t.setDateOfBirth(LocalDate.parse(v)));
+                c.put("hireDate", (t, v) -> t.setHireDate(LocalDate.parse(v)));
+                c.put("specialization", Teacher::setSpecialization);
+                c.put("salary", (t, v) -> t.setSalary(Double.valueOf(v)));
+            }),
+            Set.of("firstName", "lastName"),
+            "INSERT INTO teachers (first_name, last_name, email, phone, date_of_birth, hire_date, specialization, "
+                    + "salary) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            (ps, t) -> {
+                ps.setString(1, t.getFirstName());
+                ps.setString(2, t.getLastName());
+                ps.setString(3, t.getEmail());
+                ps.setString(4, t.getPhone());
+                ps.setObject(5, t.getDateOfBirth());
+                ps.setObject(6, t.getHireDate());
+                ps.setString(7, t.getSpecialization());
+                ps.setObject(8, t.getSalary());
+            },
+            Teacher::getEmail, Teacher::setId, Resource.TEACHERS, ChangeEvent.Entity.TEACHER);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final NameSearch nameSearch;
+    private final ResourceVersions versions;
+    private final ChangeLog changeLog;
+    
+    @Autowired
+    public ImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         Validator validator, NameSearch nameSearch, ResourceVersions versions,
+                         ChangeLog changeLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.nameSearch = nameSearch;
+        this.versions = versions;
+        this.changeLog = changeLog;
+    }
+    
+    public ImportReport importStudents(InputStream csv) throws IOException {
+        return importRows(csv, STUDENTS, nameSearch::studentsSaved);
+    }
+    
+    public ImportReport importTeachers(InputStream csv) throws IOException {
+        return importRows(csv, TEACHERS, nameSearch::teachersSaved);
+    }
+    
+    private <T> ImportReport importRows(InputStream in, Table<T> table, Consumer<List<T>> saved) throws IOException {
+        long started = System.nanoTime();
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024));
+        List<Column<T>> columns = header(csv.next(), table);
+        // One query up front instead of an existsByEmail per row; emails from the file are added as they are accepted
+        Set<String> emails = new HashSet<>();
+        jdbcTemplate.query("SELECT email FROM " + table.table() + " WHERE email IS NOT NULL",
+                rs -> { emails.add(rs.getString(1)); });
+    
+        Batch<T> batch = new Batch<>(table, saved);
+        long rows = 0;
+        ImportReport.RowError fatalError = null;
+        List<String> record;
+        while (true) {
+            try {
+                record = csv.next();
+            } catch (IllegalArgumentException e) {
+                // Earlier batches are already committed, so stop here and report what was imported
+                fatalError = new ImportReport.RowError(csv.getRecordLine(), List.of(e.getMessage()));
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            rows++;
+            long line = csv.getRecordLine();
+            List<String> messages = new ArrayList<>();
+            T entity = parse(record, columns, table, messages);
+            if (messages.isEmpty()) {
+                for (ConstraintViolation<T> violation : validator.validate(entity)) {
+                    messages.add(violation.getPropertyPath() + ": " + violation.getMessage());
+                }
+            }
+            // Checked last so a row rejected for another reason does not claim its email
+            String email = messages.isEmpty() ? table.email().apply(entity) : null;
+            if (email != null && !emails.add(email)) {
+                messages.add("email: '" + email + "' already exists");
+            }
+            if (messages.isEmpty()) {
+                batch.add(entity, line);
+            } else {
+                messages.sort(null);
+                batch.reject(line, messages);
+            }
+        }
+        batch.flush();
+    
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Imported {} of {} {} rows in {} ms ({} rejected)", batch.imported, rows, table.name(), millis,
+                batch.rejected);
+        if (fatalError != null) {
+            log.warn("Stopped {} import at line {}: {}", table.name(), fatalError.getLine(),
+                    fatalError.getMessages().get(0));
+        }
+        return new ImportReport(table.name(), rows, batch.imported, batch.rejected, millis, MAX_REPORTED_ERRORS,
+                batch.errors, fatalError);
+    }
+    
+    // Maps each CSV column to its setter; an "id" column (as in exports) is ignored
+    private static <T> List<Column<T>> header(List<String> header, Table<T> table) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV is empty; expected a header row");
+        }
+        List<Column<T>> columns = new ArrayList<>(header.size());
+        Set<String> seen = new HashSet<>();
+        for (String column : header) {
+            String name = column == null ? "" : column.trim();
+            if (!seen.add(name)) {
+                throw new IllegalArgumentException("Duplicate column '" + name + "'");
+            }
+            if (name.equals("id")) {
+                columns.add(new Column<>(name, (row, value) -> {}));
+                continue;
+            }
+            BiConsumer<T, String> setter = table.columns().get(name);
+            if (setter == null) {
+                throw new IllegalArgumentException("Unknown column '" + name + "'; expected " + table.columns().keySet());
+            }
+            columns.add(new Column<>(name, setter));
+        }
+        for (String column : table.required()) {
+            if (!seen.contains(column)) {
+                throw new IllegalArgumentException("Missing required column '" + column + "'");
+            }
+        }
+        return columns;
+    }
+    
+    private static <T> T parse(List<String> record, List<Column<T>> columns, Table<T> table, List<String> messages) {
+        T entity = table.factory().get();
+        if (record.size() != columns.size()) {
+            messages.add("expected " + columns.size() + " fields, found " + record.size());
+            return entity;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            String value = record.get(i);
+            if (value == null) {
+                continue;
+            }
+            try {
+                columns.get(i).setter().accept(entity, value.trim());
+            } catch (RuntimeException e) {
+                messages.add(columns.get(i).name() + ": invalid value '" + value + "'");
+            }
+        }
+        return entity;
+    }
+    
+    private static <T> Map<String, BiConsumer<T, String>> columns(Consumer<Map<String, BiConsumer<T, String>>> init) {
+        Map<String, BiConsumer<T, String>> columns = new LinkedHashMap<>();
+        init.accept(columns);
+        return columns;
+    }
+    
+    // Accepted rows waiting to be inserted, plus the running counts and error report
+    private final class Batch<T> {
+    
+        private final Table<T> table;
+        private final Consumer<List<T>> saved;
+        private final List<T> rows = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> lines = new ArrayList<>(BATCH_SIZE);
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+    
+        Batch(Table<T> table, Consumer<List<T>> saved) {
+            this.table = table;
+            this.saved = saved;
+        }
+    
+        void add(T row, long line) {
+            rows.add(row);
+            lines.add(line);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+    
+        void reject(long line, List<String> messages) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, messages));
+            }
+        }
+    
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(rows));
+                imported += rows.size();
+            } catch (DataIntegrityViolationException e) {
+                // Usually a row created concurrently since the emails were loaded; retry one by one to find it
+                for (int i = 0; i < rows.size(); i++) {
+                    List<T> single = List.of(rows.get(i));
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insert(single));
+                        imported++;
+                    } catch (DataIntegrityViolationException rowFailure) {
+                        reject(lines.get(i), List.of(rowFailure.getMostSpecificCause().getMessage()));
+                    }
+                }
+            }
+            rows.clear();
+            lines.clear();
+        }
+    
+        private void insert(List<T> batch) {
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(table.insertSql(), Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            table.binder().bind(ps, batch.get(i));
+                        }
+    
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keys);
+            List<Map<String, Object>> keyList = keys.getKeyList();
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                long id = ((Number) keyList.get(i).values().iterator().next()).longValue();
+                table.id().accept(batch.get(i), id);
+                ids.add(id);
+            }
+            saved.accept(batch);
+            versions.added(table.resource());
+            // Inserted rows take the version column's default, 0
+            changeLog.created(table.entity(), ids, 0L);
+        }
+    }
+}
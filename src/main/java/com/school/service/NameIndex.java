@@ -0,0 +1,261 @@
+package com.school.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over people's first name, last name and email local part. Every word is a
+ * key in a sorted term dictionary, so all terms starting with a query word are one
+ * {@code subMap} range. A query matches people having every query word as a prefix of one of
+ * their words. Results are ranked: name words score above email words, whole-word matches
+ * above prefixes.
+ */
+public class NameIndex {
+    
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    
+    // Most relevant first, then alphabetical, so equal scores page in a stable order
+    private static final Comparator<Scored> RANKING = Comparator.comparingInt(Scored::score).reversed()
+            .thenComparing(s -> s.person().lastName)
+            .thenComparing(s -> s.person().firstName)
+            .thenComparingLong(s -> s.person().id);
+    
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Person> people = new HashMap<>();
+    private int searches;
+    
+    public record Result(List<Long> ids, int total) {}
+    
+    private static final class Person {
+    
+        final long id;
+        final String firstName;
+        final String lastName;
+        final String[] nameWords;
+        final String[] emailWords;
+        // Number of the last search that visited this person, to skip repeats across terms
+        int visited;
+    
+        Person(long id, String firstName, String lastName, String[] nameWords, String[] emailWords) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.nameWords = nameWords;
+            this.emailWords = emailWords;
+        }
+    }
+    
+    private record Scored(Person person, int score) {}
+    
+    public synchronized void put(long id, String firstName, String lastName, String email) {
+        remove(id);
+        String[] nameWords = words(join(firstName, lastName));
+        String[] emailWords = words(localPart(email));
+        Person person = new Person(id, nullToEmpty(firstName), nullToEmpty(lastName), nameWords, emailWords);
+        people.put(id, person);
+        for (String word : distinct(nameWords, emailWords)) {
+            terms.computeIfAbsent(word, w -> new Postings()).add(person);
+        }
+    }
+    
+    public synchronized void remove(long id) {
+        Person person = people.remove(id);
+        if (person == null) {
+            return;
+        }
+        for (String word : distinct(person.nameWords, person.emailWords)) {
+            Postings postings = terms.get(word);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                terms.remove(word);
+            }
+        }
+    }
+    
+    public synchronized void clear() {
+        terms.clear();
+        people.clear();
+    }
+    
+    public synchronized int size() {
+        return people.size();
+    }
+    
+    /** Returns the IDs ranked {@code offset} to {@code offset + limit} and the number of matches. */
+    public synchronized Result search(String query, int offset, int limit) {
+        String[] queryWords = words(query.contains("@") ? localPart(query) : query);
+        if (queryWords.length == 0) {
+            return new Result(List.of(), 0);
+        }
+    
+        // Drive from the query word with the fewest postings; the others are checked per person
+        SortedMap<String, Postings> driver = null;
+        long driverSize = Long.MAX_VALUE;
+        for (String word : queryWords) {
+            SortedMap<String, Postings> range = terms.subMap(word, word + Character.MAX_VALUE);
+            long size = 0;
+            for (Postings postings : range.values()) {
+                size += postings.size;
+            }
+            if (size < driverSize) {
+                driver = range;
+                driverSize = size;
+            }
+        }
+        if (driverSize == 0) {
+            return new Result(List.of(), 0);
+        }
+    
+        int keep = offset + limit;
+        PriorityQueue<Scored> top = new PriorityQueue<>(Math.min(keep, 1024) + 1, RANKING.reversed());
+        int search = ++searches;
+        int total = 0;
+        for (Postings postings : driver.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                Person person = postings.people[i];
+                if (person.visited == search) {
+                    continue;
+                }
+                person.visited = search;
+                int score = score(person, queryWords);
+                if (score == 0) {
+                    continue;
+                }
+                total++;
+                Scored scored = new Scored(person, score);
+                if (top.size() < keep) {
+                    top.add(scored);
+                } else if (RANKING.compare(scored, top.peek()) < 0) {
+                    top.poll();
+                    top.add(scored);
+                }
+            }
+        }
+    
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = offset; i < ranked.size(); i++) {
+            ids.add(ranked.get(i).person().id);
+        }
+        return new Result(ids, total);
+    }
+    
+    // 0 when some query word matches none of the person's words
+    private static int score(Person person, String[] queryWords) {
+        int score = 0;
+        for (String q : queryWords) {
+            int best = Math.max(best(person.nameWords, q, 4, 2), best(person.emailWords, q, 2, 1));
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        return score;
+    }
+    
+    private static int best(String[] words, String q, int exact, int prefix) {
+        int best = 0;
+        for (String word : words) {
+            if (word.equals(q)) {
+                return exact;
+            }
+            if (word.startsWith(q)) {
+                best = prefix;
+            }
+        }
+        return best;
+    }
+    
+    static String[] words(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded)).filter(w -> !w.isEmpty()).toArray(String[]::new);
+    }
+    
+    private static String localPart(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        return at < 0 ? email : email.substring(0, at);
+    }
+    
+    private static String join(String first, String last) {
+        return nullToEmpty(first) + " " + nullToEmpty(last);
+    }
+    
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+    
+    private static Set<String> distinct(String[] a, String[] b) {
+        Set<String> all = new HashSet<>(Arrays.asList(a));
+        all.addAll(Arrays.asList(b));
+        return all;
+    }
+    
+    // The people having one term, sorted by ID; a plain array keeps 100k+ people compact
+    private static final class Postings {
+    
+        private Person[] people = new Person[2];
+        private int size;
+    
+        void add(Person person) {
+            int i = indexOf(person.id);
+            if (i >= 0) {
+                people[i] = person;
+                return;
+            }
+            i = -i - 1;
+            if (size == people.length) {
+                people = Arrays.copyOf(people, size * 2);
+            }
+            System.arraycopy(people, i, people, i + 1, size - i);
+            people[i] = person;
+            size++;
+        }
+    
+        boolean remove(long id) {
+            int i = indexOf(id);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(people, i + 1, people, i, size - i - 1);
+            people[--size] = null;
+            return true;
+        }
+    
+        private int indexOf(long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midId = people[mid].id;
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.school.service;
+
+import com.school.entity.Student;
+import com.school.entity.Teacher;
+import com.school.repository.KeysetPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Name and email search indexes for students and teachers. Loaded from the database once the
+ * application is ready; the services report changes, which are applied when their transaction
+ * commits so searches never return uncommitted people.
+ */
+@Component
+public class NameSearch {
+    
+    // Deepest ranked result a page may start at; each search keeps offset + limit results in a heap
+    public static final int MAX_OFFSET = 10_000;
+    
+    private static final Logger log = LoggerFactory.getLogger(NameSearch.class);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NameIndex students = new NameIndex();
+    private final NameIndex teachers = new NameIndex();
+    
+    @Autowired
+    public NameSearch(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        load("students", students);
+        load("teachers", teachers);
+        log.info("Name search index built: {} students, {} teachers in {} ms",
+                students.size(), teachers.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private void load(String table, NameIndex index) {
+        synchronized (index) {
+            index.clear();
+            jdbcTemplate.query("SELECT id, first_name, last_name, email FROM " + table + " ORDER BY id", rs -> {
+                index.put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+            });
+        }
+    }
+    
+    public NameIndex.Result searchStudents(String query, int offset, int limit) {
+        return search(students, query, offset, limit);
+    }
+    
+    public NameIndex.Result searchTeachers(String query, int offset, int limit) {
+        return search(teachers, query, offset, limit);
+    }
+    
+    private static NameIndex.Result search(NameIndex index, String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (offset < 0 || offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("Offset must be between 0 and " + MAX_OFFSET);
+        }
+        return index.search(query, offset, limit);
+    }
+    
+    /**
+     * Loads the ranked IDs with {@code loader} (one IN query) and returns them in rank order.
+     * The cursor of the next page is its offset; there is none past {@link #MAX_OFFSET}.
+     */
+    public static <T> KeysetPage<T> toPage(NameIndex.Result result, int offset, int limit,
+                                           Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        if (!result.ids().isEmpty()) {
+            loader.apply(result.ids()).forEach(item -> byId.put(idOf.apply(item), item));
+        }
+        List<T> items = result.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+        int nextOffset = offset + limit;
+        Long next = nextOffset < result.total() && nextOffset <= MAX_OFFSET ? (long) nextOffset : null;
+        return new KeysetPage<>(items, result.total(), next);
+    }
+    
+    public void studentSaved(Student student) {
+        long id = student.getId();
+        String firstName = student.getFirstName();
+        String lastName = student.getLastName();
+        String email = student.getEmail();
+        afterCommit(() -> students.put(id, firstName, lastName, email));
+    }
+    
+    /** Bulk form of {@link #studentSaved} used by imports: one commit callback for the whole batch. */
+    public void studentsSaved(List<Student> saved) {
+        List<Object[]> rows = saved.stream()
+                .map(s -> new Object[] {s.getId(), s.getFirstName(), s.getLastName(), s.getEmail()})
+                .toList();
+        afterCommit(() -> putAll(students, rows));
+    }
+    
+    public void studentDeleted(Long id) {
+        afterCommit(() -> students.remove(id));
+    }
+    
+    public void teacherSaved(Teacher teacher) {
+        long id = teacher.getId();
+        String firstName = teacher.getFirstName();
+        String lastName = teacher.getLastName();
+        String email = teacher.getEmail();
+        afterCommit(() -> teachers.put(id, firstName, lastName, email));
+    }
+    
+    public void teachersSaved(List<Teacher> saved) {
+        List<Object[]> rows = saved.stream()
+                .map(t -> new Object[] {t.getId(), t.getFirstName(), t.getLastName(), t.getEmail()})
+                .toList();
+        afterCommit(() -> putAll(teachers, rows));
+    }
+    
+    public void teacherDeleted(Long id) {
+        afterCommit(() -> teachers.remove(id));
+    }
+    
+    private static void putAll(NameIndex index, List<Object[]> rows) {
+        synchronized (index) {
+            for (Object[] row : rows) {
+                index.put((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            }
+        }
+    }
+    
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.school.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Version stamps behind the ETags, so conditional requests can be answered without a query.
+ * Each collection has a stamp that is bumped after every committed write to it, and the
+ * entity versions last served or written are remembered per id (least recently used first
+ * out), so a detail ETag can be confirmed without loading the row.
+ *
+ * <p>Writes forget the entity immediately and record its new version after commit; a version
+ * loaded while a write happened is not stored, so a row read before a commit cannot be
+ * remembered after it. Services report writes after their other after-commit index updates,
+ * so a new stamp is never served with data from an index that has not caught up.
+ */
+@Component
+public class ResourceVersions {
+    
+    public enum Resource { STUDENTS, TEACHERS, SUBJECTS, CLASSES }
+    
+    // Stamps restart at zero with the process; the start time keeps them from matching old tags
+    private final String boot = Long.toString(System.currentTimeMillis(), 36);
+    private final long[] stamps = new long[Resource.values().length];
+    private final long[] generations = new long[Resource.values().length];
+    private final Map<Resource, Map<Long, Long>> versions = new LinkedHashMap<>();
+    
+    public ResourceVersions(@Value("${school.etag.cache-size:100000}") int maxEntries) {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+        }
+    }
+    
+    /** Strong ETag for every representation built from the given collections. */
+    public synchronized String collectionTag(Resource... resources) {
+        StringBuilder tag = new StringBuilder("\"").append(boot);
+        for (Resource resource : resources) {
+            tag.append('-').append(stamps[resource.ordinal()]);
+        }
+        return tag.append('"').toString();
+    }
+    
+    /** The entity's current version if it is known without a query, otherwise null. */
+    public synchronized Long knownVersion(Resource resource, Long id) {
+        return versions.get(resource).get(id);
+    }
+    
+    /** Taken before loading an entity and passed back to {@link #loaded}. */
+    public synchronized long generation(Resource resource) {
+        return generations[resource.ordinal()];
+    }
+    
+    public synchronized void loaded(Resource resource, Long id, Long version, long seenGeneration) {
+        if (version != null && generations[resource.ordinal()] == seenGeneration) {
+            versions.get(resource).put(id, version);
+        }
+    }
+    
+    /** An entity was created or updated; {@code version} is read once the transaction has flushed it. */
+    public void saved(Resource resource, Long id, Supplier<Long> version) {
+        synchronized (this) {
+            forget(resource, id);
+        }
+        afterCommit(() -> {
+            forget(resource, id);
+            Long committed = version.get();
+            if (committed != null) {
+                versions.get(resource).put(id, committed);
+            }
+            stamps[resource.ordinal()]++;
+        });
+    }
+    
+    public void deleted(Resource resource, Long id) {
+        synchronized (this) {
+            forget(resource, id);
+        }
+        afterCommit(() -> {
+            forget(resource, id);
+            stamps[resource.ordinal()]++;
+        });
+    }
+    
+    /** Rows were added without touching existing ones, e.g. by a bulk import. */
+    public void added(Resource resource) {
+        afterCommit(() -> stamps[resource.ordinal()]++);
+    }
+    
+    /** For writes that change many entities at once, such as renaming a teacher shown by their classes. */
+    public void changedAll(Resource resource) {
+        synchronized (this) {
+            clear(resource);
+        }
+        afterCommit(() -> {
+            clear(resource);
+            stamps[resource.ordinal()]++;
+        });
+    }
+    
+    private void forget(Resource resource, Long id) {
+        generations[resource.ordinal()]++;
+        versions.get(resource).remove(id);
+    }
+    
+    private void clear(Resource resource) {
+        generations[resource.ordinal()]++;
+        versions.get(resource).clear();
+    }
+    
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                change.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (ResourceVersions.this) {
+                    change.run();
+                }
+            }
+        });
+    }
+}
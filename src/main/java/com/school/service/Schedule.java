@@ -0,0 +1,132 @@
+package com.school.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Locale;
+
+/**
+ * A weekly meeting pattern: the days a class meets as a bitmask (bit 0 = Monday) and the
+ * meeting time as minutes since midnight, end exclusive.
+ */
+public record Schedule(int dayMask, int startMinute, int endMinute) {
+    
+    private static final String[] DAYS = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+    
+    // Letter codes for compact day lists such as "MWF" or "TTh"; two-letter codes are tried first
+    private static final String[] CODES = {"m", "t", "w", "r", "f", "s", "u"};
+    private static final String[] TWO_LETTER_CODES = {null, "tu", null, "th", null, "sa", "su"};
+    
+    /**
+     * Parses a class's {@code daysOfWeek} text and times. Days are full names or abbreviations of
+     * at least three letters ("Monday,Wednesday", "Mon, Wed", "Monday and Wednesday"), ranges
+     * ("Mon-Fri", "Monday to Friday"), or letter codes M T W R F S U, with Tu, Th, Sa and Su
+     * ("MWF", "TTh"). Returns null when any part is missing, since such a class has no slot to
+     * conflict with.
+     *
+     * @throws IllegalArgumentException if a day cannot be read or the end time is not after the start
+     */
+    public static Schedule of(String daysOfWeek, LocalTime startTime, LocalTime endTime) {
+        if (daysOfWeek == null || daysOfWeek.isBlank() || startTime == null || endTime == null) {
+            return null;
+        }
+        String days = daysOfWeek.trim().toLowerCase(Locale.ROOT)
+                .replaceAll("\\s*[-\u2013]\\s*|\\s+(to|through|thru)\\s+", "-");
+        int mask = 0;
+        for (String token : days.split("[,;/&\\s]+")) {
+            if (token.isEmpty() || token.equals("and")) {
+                continue;
+            }
+            int dash = token.indexOf('-');
+            mask |= dash < 0 ? dayMask(token) : rangeMask(token, dash);
+        }
+        int start = startTime.getHour() * 60 + startTime.getMinute();
+        int end = endTime.getHour() * 60 + endTime.getMinute();
+        if (end <= start) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        return new Schedule(mask, start, end);
+    }
+    
+    // "mon-fri": every day from the first through the last, wrapping past Sunday
+    private static int rangeMask(String token, int dash) {
+        int first = singleDay(token.substring(0, dash), token);
+        int last = singleDay(token.substring(dash + 1), token);
+        int mask = 0;
+        for (int day = first; ; day = (day + 1) % DAYS.length) {
+            mask |= 1 << day;
+            if (day == last) {
+                return mask;
+            }
+        }
+    }
+    
+    private static int singleDay(String day, String token) {
+        int mask = dayMask(day);
+        if (Integer.bitCount(mask) != 1) {
+            throw new IllegalArgumentException("Unknown day range: " + token);
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+    
+    // A day name or abbreviation, or else a run of letter codes
+    private static int dayMask(String token) {
+        if (token.length() >= 3) {
+            for (int i = 0; i < DAYS.length; i++) {
+                if (DAYS[i].startsWith(token)) {
+                    return 1 << i;
+                }
+            }
+        }
+        int mask = 0;
+        int at = 0;
+        while (at < token.length()) {
+            int matched = codeAt(token, at, TWO_LETTER_CODES);
+            if (matched >= 0) {
+                at += 2;
+            } else {
+                matched = codeAt(token, at, CODES);
+                if (matched < 0) {
+                    throw new IllegalArgumentException("Unknown day of week: " + token);
+                }
+                at++;
+            }
+            mask |= 1 << matched;
+        }
+        return mask;
+    }
+    
+    private static int codeAt(String token, int at, String[] codes) {
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] != null && token.startsWith(codes[i], at)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    public boolean meetsOn(DayOfWeek day) {
+        return (dayMask & 1 << (day.getValue() - 1)) != 0;
+    }
+    
+    public int duration() {
+        return endMinute - startMinute;
+    }
+    
+    public boolean overlaps(Schedule other) {
+        return (dayMask & other.dayMask) != 0
+                && startMinute < other.endMinute && other.startMinute < endMinute;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder days = new StringBuilder();
+        for (int i = 0; i < DAYS.length; i++) {
+            if ((dayMask & 1 << i) != 0) {
+                days.append(days.length() == 0 ? "" : ",")
+                        .append(Character.toUpperCase(DAYS[i].charAt(0))).append(DAYS[i], 1, 3);
+            }
+        }
+        return String.format("%s %02d:%02d-%02d:%02d", days, startMinute / 60, startMinute % 60,
+                endMinute / 60, endMinute % 60);
+    }
+}
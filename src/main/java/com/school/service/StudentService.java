@@ -1,55 +1,128 @@
 package com.school.service;
 
+import com.school.config.MetricsConfig;
+import com.school.dto.ChangeEvent;
 import com.school.entity.Student;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetQueries;
+import com.school.repository.KeysetRequest;
 import com.school.repository.StudentRepository;
+import com.school.repository.WaitlistRepository;
+import com.school.service.ResourceVersions.Resource;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class StudentService {
     
+    public static final Set<String> SORTABLE = Set.of("firstName", "lastName");
+    
     private final StudentRepository studentRepository;
+    private final TimetableCache timetableCache;
+    private final NameSearch nameSearch;
+    private final ResourceVersions versions;
+    private final WaitlistRepository waitlistRepository;
+    private final ChangeLog changeLog;
     
     @Autowired
-    public StudentService(StudentRepository studentRepository) {
+    public StudentService(StudentRepository studentRepository, TimetableCache timetableCache, NameSearch nameSearch,
+                          ResourceVersions versions, WaitlistRepository waitlistRepository, ChangeLog changeLog) {
         this.studentRepository = studentRepository;
+        this.timetableCache = timetableCache;
+        this.nameSearch = nameSearch;
+        this.versions = versions;
+        this.waitlistRepository = waitlistRepository;
+        this.changeLog = changeLog;
     }
     
+    @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<Student> getAllStudents(KeysetRequest page) {
+        return KeysetQueries.fetch(studentRepository, null, page.requireSortableBy(SORTABLE), Student::getId);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Student> getStudentById(Long id) {
         return studentRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return studentRepository.existsById(id);
+    }
+    
+    @Transactional(readOnly = true)
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return new HashSet<>(studentRepository.findExistingIds(ids));
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Student> getStudentByEmail(String email) {
         return studentRepository.findByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public List<Student> getStudentsByGradeLevel(Integer gradeLevel) {
         return studentRepository.findByGradeLevel(gradeLevel);
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<Student> getStudentsByGradeLevel(Integer gradeLevel, KeysetRequest page) {
+        return KeysetQueries.fetch(studentRepository,
+                (root, query, cb) -> cb.equal(root.get("gradeLevel"), gradeLevel),
+                page.requireSortableBy(SORTABLE).fixing("gradeLevel"), Student::getId);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Student> getStudentsWithGpaAbove(Double gpa) {
         return studentRepository.findByGpaGreaterThan(gpa);
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<Student> getStudentsWithGpaAbove(Double gpa, KeysetRequest page) {
+        return KeysetQueries.fetch(studentRepository,
+                (root, query, cb) -> cb.greaterThan(root.<Double>get("gpa"), gpa),
+                page.requireSortableBy(SORTABLE), Student::getId);
+    }
+    
+    /** Ranked name/email prefix search, e.g. "john sm"; {@code offset} is the cursor from the previous page. */
+    @Transactional(readOnly = true)
+    public KeysetPage<Student> searchStudents(String query, int offset, Integer limit) {
+        int size = KeysetRequest.of(null, limit, null, null).getLimit();
+        NameIndex.Result result = nameSearch.searchStudents(query, offset, size);
+        return NameSearch.toPage(result, offset, size, studentRepository::findAllById, Student::getId);
+    }
+    
     public Student createStudent(Student student) {
         if (studentRepository.existsByEmail(student.getEmail())) {
             throw new RuntimeException("Student with email '" + student.getEmail() + "' already exists");
         }
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        nameSearch.studentSaved(saved);
+        versions.saved(Resource.STUDENTS, saved.getId(), saved::getVersion);
+        changeLog.created(ChangeEvent.Entity.STUDENT, saved.getId(), saved::getVersion);
+        return saved;
     }
     
-    public Student updateStudent(Long id, Student studentDetails) {
+    /** {@code expectedVersion} is the If-Match version, or null to update unconditionally. */
+    public Student updateStudent(Long id, Student studentDetails, Long expectedVersion) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
+        VersionMismatchException.check("Student", id, expectedVersion, student.getVersion());
         
         student.setFirstName(studentDetails.getFirstName());
         student.setLastName(studentDetails.getLastName());
@@ -61,21 +134,32 @@ public class StudentService {
         student.setGradeLevel(studentDetails.getGradeLevel());
         student.setGpa(studentDetails.getGpa());
         
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        nameSearch.studentSaved(saved);
+        versions.saved(Resource.STUDENTS, id, saved::getVersion);
+        changeLog.updated(ChangeEvent.Entity.STUDENT, id, saved::getVersion);
+        return saved;
     }
     
-    public void deleteStudent(Long id) {
+    public void deleteStudent(Long id, Long expectedVersion) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
+        VersionMismatchException.check("Student", id, expectedVersion, student.getVersion());
         
         // Check if student is enrolled in any classes
         if (!student.getClasses().isEmpty()) {
             throw new RuntimeException("Cannot delete student that is enrolled in classes");
         }
         
+        waitlistRepository.deleteByStudentId(id);
         studentRepository.delete(student);
+        timetableCache.evictStudent(id);
+        nameSearch.studentDeleted(id);
+        versions.deleted(Resource.STUDENTS, id);
+        changeLog.deleted(ChangeEvent.Entity.STUDENT, id);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return studentRepository.existsByEmail(email);
     }
@@ -1,33 +1,68 @@
 package com.school.service;
 
+import com.school.config.MetricsConfig;
+import com.school.dto.ChangeEvent;
 import com.school.entity.Subject;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetQueries;
+import com.school.repository.KeysetRequest;
+import com.school.repository.ClassRepository;
 import com.school.repository.SubjectRepository;
+import com.school.service.ResourceVersions.Resource;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class SubjectService {
     
+    public static final Set<String> SORTABLE = Set.of("name");
+    
     private final SubjectRepository subjectRepository;
+    private final TimetableCache timetableCache;
+    private final ClassRepository classRepository;
+    private final ResourceVersions versions;
+    private final ChangeLog changeLog;
     
     @Autowired
-    public SubjectService(SubjectRepository subjectRepository) {
+    public SubjectService(SubjectRepository subjectRepository, TimetableCache timetableCache,
+                          ClassRepository classRepository, ResourceVersions versions, ChangeLog changeLog) {
         this.subjectRepository = subjectRepository;
+        this.timetableCache = timetableCache;
+        this.classRepository = classRepository;
+        this.versions = versions;
+        this.changeLog = changeLog;
     }
     
+    @Transactional(readOnly = true)
     public List<Subject> getAllSubjects() {
         return subjectRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<Subject> getAllSubjects(KeysetRequest page) {
+        return KeysetQueries.fetch(subjectRepository, null, page.requireSortableBy(SORTABLE), Subject::getId);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Subject> getSubjectById(Long id) {
         return subjectRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return subjectRepository.existsById(id);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Subject> getSubjectByName(String name) {
         return subjectRepository.findByName(name);
     }
@@ -36,23 +71,39 @@ public class SubjectService {
         if (subjectRepository.existsByName(subject.getName())) {
             throw new RuntimeException("Subject with name '" + subject.getName() + "' already exists");
         }
-        return subjectRepository.save(subject);
+        Subject saved = subjectRepository.save(subject);
+        versions.saved(Resource.SUBJECTS, saved.getId(), saved::getVersion);
+        changeLog.created(ChangeEvent.Entity.SUBJECT, saved.getId(), saved::getVersion);
+        return saved;
     }
     
-    public Subject updateSubject(Long id, Subject subjectDetails) {
+    /** {@code expectedVersion} is the If-Match version, or null to update unconditionally. */
+    public Subject updateSubject(Long id, Subject subjectDetails, Long expectedVersion) {
         Subject subject = subjectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Subject not found with id: " + id));
+        VersionMismatchException.check("Subject", id, expectedVersion, subject.getVersion());
+        
+        // Subject names appear in timetables and in every class of the subject
+        if (!Objects.equals(subject.getName(), subjectDetails.getName())) {
+            timetableCache.clear();
+            classRepository.incrementVersionsBySubjectId(id);
+            versions.changedAll(Resource.CLASSES);
+        }
         
         subject.setName(subjectDetails.getName());
         subject.setDescription(subjectDetails.getDescription());
         subject.setCredits(subjectDetails.getCredits());
         
-        return subjectRepository.save(subject);
+        Subject saved = subjectRepository.save(subject);
+        versions.saved(Resource.SUBJECTS, id, saved::getVersion);
+        changeLog.updated(ChangeEvent.Entity.SUBJECT, id, saved::getVersion);
+        return saved;
     }
     
-    public void deleteSubject(Long id) {
+    public void deleteSubject(Long id, Long expectedVersion) {
         Subject subject = subjectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Subject not found with id: " + id));
+        VersionMismatchException.check("Subject", id, expectedVersion, subject.getVersion());
         
         // Check if subject is used in any classes
         if (!subject.getClasses().isEmpty()) {
@@ -60,8 +111,11 @@ public class SubjectService {
         }
         
         subjectRepository.delete(subject);
+        versions.deleted(Resource.SUBJECTS, id);
+        changeLog.deleted(ChangeEvent.Entity.SUBJECT, id);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByName(String name) {
         return subjectRepository.existsByName(name);
     }
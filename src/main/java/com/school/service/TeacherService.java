@@ -1,47 +1,106 @@
 package com.school.service;
 
+import com.school.config.MetricsConfig;
+import com.school.dto.ChangeEvent;
 import com.school.entity.Teacher;
+import com.school.repository.KeysetPage;
+import com.school.repository.KeysetQueries;
+import com.school.repository.KeysetRequest;
+import com.school.repository.ClassRepository;
 import com.school.repository.TeacherRepository;
+import com.school.service.ResourceVersions.Resource;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class TeacherService {
     
+    public static final Set<String> SORTABLE = Set.of("firstName", "lastName");
+    
     private final TeacherRepository teacherRepository;
+    private final TimetableCache timetableCache;
+    private final NameSearch nameSearch;
+    private final ClassRepository classRepository;
+    private final ResourceVersions versions;
+    private final ChangeLog changeLog;
     
     @Autowired
-    public TeacherService(TeacherRepository teacherRepository) {
+    public TeacherService(TeacherRepository teacherRepository, TimetableCache timetableCache, NameSearch nameSearch,
+                          ClassRepository classRepository, ResourceVersions versions, ChangeLog changeLog) {
         this.teacherRepository = teacherRepository;
+        this.timetableCache = timetableCache;
+        this.nameSearch = nameSearch;
+        this.classRepository = classRepository;
+        this.versions = versions;
+        this.changeLog = changeLog;
     }
     
+    @Transactional(readOnly = true)
     public List<Teacher> getAllTeachers() {
         return teacherRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public KeysetPage<Teacher> getAllTeachers(KeysetRequest page) {
+        return KeysetQueries.fetch(teacherRepository, null, page.requireSortableBy(SORTABLE), Teacher::getId);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Teacher> getTeacherById(Long id) {
         return teacherRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return teacherRepository.existsById(id);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Teacher> getTeacherByEmail(String email) {
         return teacherRepository.findByEmail(email);
     }
     
+    /** Ranked name/email prefix search, e.g. "john sm"; {@code offset} is the cursor from the previous page. */
+    @Transactional(readOnly = true)
+    public KeysetPage<Teacher> searchTeachers(String query, int offset, Integer limit) {
+        int size = KeysetRequest.of(null, limit, null, null).getLimit();
+        NameIndex.Result result = nameSearch.searchTeachers(query, offset, size);
+        return NameSearch.toPage(result, offset, size, teacherRepository::findAllById, Teacher::getId);
+    }
+    
     public Teacher createTeacher(Teacher teacher) {
         if (teacherRepository.existsByEmail(teacher.getEmail())) {
             throw new RuntimeException("Teacher with email '" + teacher.getEmail() + "' already exists");
         }
-        return teacherRepository.save(teacher);
+        Teacher saved = teacherRepository.save(teacher);
+        nameSearch.teacherSaved(saved);
+        versions.saved(Resource.TEACHERS, saved.getId(), saved::getVersion);
+        changeLog.created(ChangeEvent.Entity.TEACHER, saved.getId(), saved::getVersion);
+        return saved;
     }
     
-    public Teacher updateTeacher(Long id, Teacher teacherDetails) {
+    /** {@code expectedVersion} is the If-Match version, or null to update unconditionally. */
+    public Teacher updateTeacher(Long id, Teacher teacherDetails, Long expectedVersion) {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + id));
+        VersionMismatchException.check("Teacher", id, expectedVersion, teacher.getVersion());
+        
+        // The teacher's name appears in the timetables of everyone they teach, and in their classes
+        if (!Objects.equals(teacher.getFirstName(), teacherDetails.getFirstName())
+                || !Objects.equals(teacher.getLastName(), teacherDetails.getLastName())) {
+            timetableCache.clear();
+            classRepository.incrementVersionsByTeacherId(id);
+            versions.changedAll(Resource.CLASSES);
+        }
         
         teacher.setFirstName(teacherDetails.getFirstName());
         teacher.setLastName(teacherDetails.getLastName());
@@ -52,12 +111,17 @@ public class TeacherService {
         teacher.setSpecialization(teacherDetails.getSpecialization());
         teacher.setSalary(teacherDetails.getSalary());
         
-        return teacherRepository.save(teacher);
+        Teacher saved = teacherRepository.save(teacher);
+        nameSearch.teacherSaved(saved);
+        versions.saved(Resource.TEACHERS, id, saved::getVersion);
+        changeLog.updated(ChangeEvent.Entity.TEACHER, id, saved::getVersion);
+        return saved;
     }
     
-    public void deleteTeacher(Long id) {
+    public void deleteTeacher(Long id, Long expectedVersion) {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + id));
+        VersionMismatchException.check("Teacher", id, expectedVersion, teacher.getVersion());
         
         // Check if teacher is assigned to any classes
         if (!teacher.getClasses().isEmpty()) {
@@ -65,8 +129,13 @@ public class TeacherService {
         }
         
         teacherRepository.delete(teacher);
+        timetableCache.evictTeacher(id);
+        nameSearch.teacherDeleted(id);
+        versions.deleted(Resource.TEACHERS, id);
+        changeLog.deleted(ChangeEvent.Entity.TEACHER, id);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return teacherRepository.existsByEmail(email);
     }
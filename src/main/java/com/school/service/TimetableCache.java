@@ -0,0 +1,160 @@
+package com.school.service;
+
+import com.school.dto.WeeklyTimetable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Least-recently-used cache of built timetables per student and teacher. Each entry is also
+ * indexed by the classes it shows, so a change to one class evicts exactly the timetables
+ * that contain it.
+ *
+ * <p>Evictions are applied immediately and again after the surrounding transaction ends; a
+ * timetable loaded while an eviction happened is returned but not stored, so a grid read
+ * before a commit cannot be cached after it.
+ */
+@Component
+public class TimetableCache {
+    
+    public enum Owner { STUDENT, TEACHER }
+    
+    private record Key(Owner owner, Long id) {}
+    
+    private record Entry(WeeklyTimetable timetable, Set<Long> classIds) {}
+    
+    private final Map<Key, Entry> entries;
+    private final Map<Long, Set<Key>> byClass = new HashMap<>();
+    // Bumped on every eviction; a load that spans one is not cached
+    private long generation;
+    
+    public TimetableCache(@Value("${school.timetable.cache-size:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > maxEntries) {
+                    unlink(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    public WeeklyTimetable get(Owner owner, Long id, Supplier<WeeklyTimetable> loader) {
+        Key key = new Key(owner, id);
+        long seen;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                return entry.timetable();
+            }
+            seen = generation;
+        }
+        WeeklyTimetable timetable = loader.get();
+        synchronized (this) {
+            if (generation == seen) {
+                Set<Long> classIds = new HashSet<>();
+                timetable.getTerms().forEach(term -> {
+                    term.getDays().values().forEach(slots -> slots.forEach(slot -> classIds.add(slot.getClassId())));
+                    term.getUnscheduled().forEach(slot -> classIds.add(slot.getClassId()));
+                });
+                Entry previous = entries.put(key, new Entry(timetable, classIds));
+                if (previous != null) {
+                    unlink(key, previous);
+                }
+                classIds.forEach(classId -> byClass.computeIfAbsent(classId, c -> new HashSet<>()).add(key));
+            }
+        }
+        return timetable;
+    }
+    
+    public void evictStudent(Long studentId) {
+        evict(List.of(new Key(Owner.STUDENT, studentId)), List.of());
+    }
+    
+    public void evictStudents(Collection<Long> studentIds) {
+        evict(studentIds.stream().map(id -> new Key(Owner.STUDENT, id)).toList(), List.of());
+    }
+    
+    public void evictTeacher(Long teacherId) {
+        evict(List.of(new Key(Owner.TEACHER, teacherId)), List.of());
+    }
+    
+    /** Evicts every timetable showing the class, whoever it belongs to. */
+    public void evictClass(Long classId) {
+        evict(List.of(), List.of(classId));
+    }
+    
+    /** For changes that can show up in any timetable, such as a renamed subject or teacher. */
+    public void clear() {
+        synchronized (this) {
+            clearNow();
+        }
+        afterCompletion(this::clearNow);
+    }
+    
+    private void evict(List<Key> keys, List<Long> classIds) {
+        synchronized (this) {
+            evictNow(keys, classIds);
+        }
+        afterCompletion(() -> evictNow(keys, classIds));
+    }
+    
+    private void evictNow(List<Key> keys, List<Long> classIds) {
+        generation++;
+        keys.forEach(this::remove);
+        for (Long classId : classIds) {
+            Set<Key> showing = byClass.remove(classId);
+            if (showing != null) {
+                showing.forEach(this::remove);
+            }
+        }
+    }
+    
+    private void clearNow() {
+        generation++;
+        entries.clear();
+        byClass.clear();
+    }
+    
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unlink(key, entry);
+        }
+    }
+    
+    private void unlink(Key key, Entry entry) {
+        for (Long classId : entry.classIds()) {
+            Set<Key> showing = byClass.get(classId);
+            if (showing != null && showing.remove(key) && showing.isEmpty()) {
+                byClass.remove(classId);
+            }
+        }
+    }
+    
+    private void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (TimetableCache.this) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
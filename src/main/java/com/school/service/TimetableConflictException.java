@@ -0,0 +1,9 @@
+package com.school.service;
+
+/** Thrown when a class or enrollment would double-book a teacher, room or student. */
+public class TimetableConflictException extends RuntimeException {
+    
+    public TimetableConflictException(String message) {
+        super(message);
+    }
+}
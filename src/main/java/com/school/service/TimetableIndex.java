@@ -0,0 +1,316 @@
+package com.school.service;
+
+import com.school.entity.Class;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * In-memory timetable of every scheduled class, keyed by teacher, room and student within a
+ * term (semester + academic year). Each key holds its slots ordered by start minute, so a
+ * conflict check only looks at the slots that start within one class length of the new one
+ * instead of scanning every class.
+ *
+ * <p>The index is built from the database once the application is ready and then kept up to
+ * date by {@link ClassService}. Changes made inside a transaction are undone if it rolls back.
+ */
+@Component
+public class TimetableIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(TimetableIndex.class);
+    
+    private static final Comparator<Slot> BY_START = Comparator.comparingInt(Slot::start)
+            .thenComparingLong(Slot::classId);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, Placement> placements = new HashMap<>();
+    private final Map<Resource, TreeSet<Slot>> slots = new HashMap<>();
+    // Longest class seen; bounds how far before a new slot an overlapping one can start
+    private int maxDuration;
+    
+    @Autowired
+    public TimetableIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /** Reloads every class and enrollment. Classes whose schedule cannot be parsed are left out. */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        placements.clear();
+        slots.clear();
+        maxDuration = 0;
+        int[] skipped = new int[1];
+        jdbcTemplate.query("SELECT id, teacher_id, room_number, days_of_week, start_time, end_time, semester, "
+                + "academic_year FROM classes", rs -> {
+            Schedule schedule;
+            try {
+                schedule = Schedule.of(rs.getString("days_of_week"), rs.getObject("start_time", LocalTime.class),
+                        rs.getObject("end_time", LocalTime.class));
+            } catch (IllegalArgumentException e) {
+                skipped[0]++;
+                return;
+            }
+            Placement placement = new Placement(rs.getLong("id"), rs.getObject("teacher_id", Long.class),
+                    rs.getString("room_number"), rs.getString("semester"), rs.getString("academic_year"), schedule);
+            placements.put(placement.classId(), placement);
+            add(placement, List.of());
+        });
+        long[] enrollments = new long[1];
+        jdbcTemplate.query("SELECT class_id, student_id FROM class_students", rs -> {
+            Placement placement = placements.get(rs.getLong(1));
+            if (placement != null && placement.schedule() != null) {
+                insert(Resource.student(rs.getLong(2), placement), placement);
+                enrollments[0]++;
+            }
+        });
+        log.info("Timetable index built: {} classes, {} enrollments ({} unparseable schedules) in {} ms",
+                placements.size(), enrollments[0], skipped[0], (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    /**
+     * Adds a new class or moves an existing one to its current schedule, teacher and room.
+     * The roster is only read when the class's time or term changes.
+     *
+     * @throws TimetableConflictException if the teacher, the room or an enrolled student is
+     *         already booked at an overlapping time
+     * @throws IllegalArgumentException if the schedule cannot be parsed
+     */
+    public synchronized void placeClass(Class classEntity, Supplier<Collection<Long>> roster) {
+        Placement placement = Placement.of(classEntity);
+        Placement previous = placements.get(placement.classId());
+    
+        // Enrolled students' entries only move when the class's time or term changes
+        Collection<Long> studentIds = previous != null && !placement.sameSlot(previous) ? roster.get() : List.of();
+        if (previous != null) {
+            remove(previous, studentIds);
+        }
+    
+        String conflict = findConflict(placement, studentIds);
+        if (conflict != null) {
+            if (previous != null) {
+                add(previous, studentIds);
+            }
+            throw new TimetableConflictException(conflict);
+        }
+    
+        placements.put(placement.classId(), placement);
+        add(placement, studentIds);
+        onRollback(() -> {
+            remove(placement, studentIds);
+            if (previous != null) {
+                placements.put(previous.classId(), previous);
+                add(previous, studentIds);
+            } else {
+                placements.remove(placement.classId());
+            }
+        });
+    }
+    
+    public synchronized void removeClass(Long classId, Collection<Long> studentIds) {
+        Placement placement = placements.remove(classId);
+        if (placement == null) {
+            return;
+        }
+        remove(placement, studentIds);
+        onRollback(() -> {
+            placements.put(classId, placement);
+            add(placement, studentIds);
+        });
+    }
+    
+    /** @throws TimetableConflictException if the student already has a class at an overlapping time */
+    public synchronized void enroll(Long classId, Long studentId) {
+        String conflict = tryEnroll(classId, studentId);
+        if (conflict != null) {
+            throw new TimetableConflictException(conflict);
+        }
+    }
+    
+    /** Books the student into the class, or returns a description of the clash without booking. */
+    public synchronized String tryEnroll(Long classId, Long studentId) {
+        Placement placement = placements.get(classId);
+        if (placement == null || placement.schedule() == null) {
+            return null;
+        }
+        Resource student = Resource.student(studentId, placement);
+        Slot clash = findOverlap(student, placement);
+        if (clash != null) {
+            return "Student " + studentId + " " + describe(clash);
+        }
+        insert(student, placement);
+        onRollback(() -> delete(student, placement));
+        return null;
+    }
+    
+    public synchronized void unenroll(Long classId, Long studentId) {
+        Placement placement = placements.get(classId);
+        if (placement == null || placement.schedule() == null) {
+            return;
+        }
+        Resource student = Resource.student(studentId, placement);
+        delete(student, placement);
+        onRollback(() -> insert(student, placement));
+    }
+    
+    private String findConflict(Placement placement, Collection<Long> studentIds) {
+        if (placement.schedule() == null) {
+            return null;
+        }
+        Slot clash;
+        if (placement.teacherId() != null
+                && (clash = findOverlap(Resource.teacher(placement.teacherId(), placement), placement)) != null) {
+            return "Teacher " + placement.teacherId() + " " + describe(clash);
+        }
+        if (placement.room() != null
+                && (clash = findOverlap(Resource.room(placement.room(), placement), placement)) != null) {
+            return "Room " + placement.room() + " " + describe(clash);
+        }
+        for (Long studentId : studentIds) {
+            if ((clash = findOverlap(Resource.student(studentId, placement), placement)) != null) {
+                return "Student " + studentId + " " + describe(clash);
+            }
+        }
+        return null;
+    }
+    
+    // Only slots starting in (start - maxDuration, end) can overlap [start, end)
+    private Slot findOverlap(Resource resource, Placement placement) {
+        TreeSet<Slot> booked = slots.get(resource);
+        if (booked == null) {
+            return null;
+        }
+        Schedule schedule = placement.schedule();
+        Slot from = new Slot(Long.MIN_VALUE, 0, schedule.startMinute() - maxDuration + 1, 0);
+        Slot to = new Slot(Long.MIN_VALUE, 0, schedule.endMinute(), 0);
+        for (Slot slot : booked.subSet(from, true, to, false)) {
+            if (slot.classId() != placement.classId() && slot.schedule().overlaps(schedule)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+    
+    private String describe(Slot clash) {
+        return "is already booked for class " + clash.classId() + " (" + clash.schedule() + ")";
+    }
+    
+    private void add(Placement placement, Collection<Long> studentIds) {
+        if (placement.schedule() == null) {
+            return;
+        }
+        if (placement.teacherId() != null) {
+            insert(Resource.teacher(placement.teacherId(), placement), placement);
+        }
+        if (placement.room() != null) {
+            insert(Resource.room(placement.room(), placement), placement);
+        }
+        for (Long studentId : studentIds) {
+            insert(Resource.student(studentId, placement), placement);
+        }
+    }
+    
+    private void remove(Placement placement, Collection<Long> studentIds) {
+        if (placement.schedule() == null) {
+            return;
+        }
+        if (placement.teacherId() != null) {
+            delete(Resource.teacher(placement.teacherId(), placement), placement);
+        }
+        if (placement.room() != null) {
+            delete(Resource.room(placement.room(), placement), placement);
+        }
+        for (Long studentId : studentIds) {
+            delete(Resource.student(studentId, placement), placement);
+        }
+    }
+    
+    private void insert(Resource resource, Placement placement) {
+        slots.computeIfAbsent(resource, r -> new TreeSet<>(BY_START)).add(placement.slot());
+        maxDuration = Math.max(maxDuration, placement.schedule().duration());
+    }
+    
+    private void delete(Resource resource, Placement placement) {
+        TreeSet<Slot> booked = slots.get(resource);
+        if (booked != null && booked.remove(placement.slot()) && booked.isEmpty()) {
+            slots.remove(resource);
+        }
+    }
+    
+    private void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (TimetableIndex.this) {
+                        undo.run();
+                    }
+                }
+            }
+        });
+    }
+    
+    // kind is 't' (teacher), 'r' (room) or 's' (student)
+    private record Resource(char kind, Object id, String semester, String academicYear) {
+    
+        static Resource teacher(Long teacherId, Placement placement) {
+            return new Resource('t', teacherId, placement.semester(), placement.academicYear());
+        }
+    
+        static Resource room(String room, Placement placement) {
+            return new Resource('r', room.trim().toLowerCase(Locale.ROOT), placement.semester(), placement.academicYear());
+        }
+    
+        static Resource student(Long studentId, Placement placement) {
+            return new Resource('s', studentId, placement.semester(), placement.academicYear());
+        }
+    }
+    
+    private record Slot(long classId, int dayMask, int start, int end) {
+    
+        Schedule schedule() {
+            return new Schedule(dayMask, start, end);
+        }
+    }
+    
+    private record Placement(long classId, Long teacherId, String room, String semester, String academicYear,
+                             Schedule schedule) {
+    
+        static Placement of(Class classEntity) {
+            Long teacherId = classEntity.getTeacher() != null ? classEntity.getTeacher().getId() : null;
+            return new Placement(classEntity.getId(), teacherId, classEntity.getRoomNumber(),
+                    classEntity.getSemester(), classEntity.getAcademicYear(),
+                    Schedule.of(classEntity.getDaysOfWeek(), classEntity.getStartTime(), classEntity.getEndTime()));
+        }
+    
+        Slot slot() {
+            return new Slot(classId, schedule.dayMask(), schedule.startMinute(), schedule.endMinute());
+        }
+    
+        // Same time and term, so enrolled students' entries need not move
+        boolean sameSlot(Placement other) {
+            return Objects.equals(schedule, other.schedule) && Objects.equals(semester, other.semester)
+                    && Objects.equals(academicYear, other.academicYear);
+        }
+    }
+}
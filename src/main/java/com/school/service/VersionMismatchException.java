@@ -0,0 +1,16 @@
+package com.school.service;
+
+/** Thrown when an If-Match precondition names a version other than the entity's current one. */
+public class VersionMismatchException extends RuntimeException {
+    
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+    
+    /** Passes when no version is expected (no If-Match) or it is the current one. */
+    static void check(String entity, Long id, Long expected, Long current) {
+        if (expected != null && !expected.equals(current)) {
+            throw new VersionMismatchException(entity + " " + id + " is at version " + current + ", not " + expected);
+        }
+    }
+}
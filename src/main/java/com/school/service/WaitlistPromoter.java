@@ -0,0 +1,101 @@
+package com.school.service;
+
+import com.school.dto.EnrollmentResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves waitlisted students into freed seats on one background thread, so the request that
+ * freed a seat does not wait for the promotion. Signals for a class that is already queued are
+ * merged. A periodic sweep re-queues classes whose promotion was lost, e.g. after a failure or
+ * a restart between the commit and the promotion.
+ */
+@Component
+public class WaitlistPromoter {
+    
+    private static final Logger log = LoggerFactory.getLogger(WaitlistPromoter.class);
+    
+    /** Published by the transaction that freed seats; acted on once it commits. */
+    public record SeatsFreed(Long classId) {}
+    
+    private final WaitlistService waitlistService;
+    private final int batchSize;
+    
+    // Classes waiting for the worker; guarded by itself
+    private final Set<Long> queued = new LinkedHashSet<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-promoter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Autowired
+    public WaitlistPromoter(WaitlistService waitlistService,
+                            @Value("${school.waitlist.promotion-batch-size}") int batchSize) {
+        this.waitlistService = waitlistService;
+        this.batchSize = batchSize;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void seatsFreed(SeatsFreed event) {
+        submit(event.classId());
+    }
+    
+    @Scheduled(fixedDelayString = "${school.waitlist.sweep-ms}")
+    public void sweep() {
+        waitlistService.findClassesToPromote().forEach(this::submit);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+    
+    private void submit(Long classId) {
+        synchronized (queued) {
+            if (!queued.add(classId)) {
+                return;
+            }
+        }
+        worker.execute(() -> promote(classId));
+    }
+    
+    private void promote(Long classId) {
+        // Dequeued before reading, so seats freed from here on queue the class again
+        synchronized (queued) {
+            queued.remove(classId);
+        }
+        int enrolled = 0;
+        int dropped = 0;
+        try {
+            List<EnrollmentResult> batch;
+            while (!(batch = waitlistService.promoteNext(classId, batchSize)).isEmpty()) {
+                for (EnrollmentResult result : batch) {
+                    if (result.getStatus() == EnrollmentResult.Status.ENROLLED) {
+                        enrolled++;
+                    } else {
+                        dropped++;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Waitlist promotion for class {} failed; the sweep will retry it", classId, e);
+        }
+        if (enrolled > 0 || dropped > 0) {
+            log.info("Class {}: enrolled {} from the waitlist, dropped {} who could not take a seat",
+                    classId, enrolled, dropped);
+        }
+    }
+}
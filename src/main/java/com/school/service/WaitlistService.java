@@ -0,0 +1,117 @@
+package com.school.service;
+
+import com.school.config.MetricsConfig;
+import com.school.dto.EnrollmentResult;
+import com.school.dto.WaitlistPosition;
+import com.school.entity.Class;
+import com.school.entity.WaitlistEntry;
+import com.school.repository.ClassRepository;
+import com.school.repository.StudentRepository;
+import com.school.repository.WaitlistRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class WaitlistService {
+    
+    private final WaitlistRepository waitlistRepository;
+    private final ClassRepository classRepository;
+    private final StudentRepository studentRepository;
+    private final ClassService classService;
+    private final ApplicationEventPublisher events;
+    
+    @Autowired
+    public WaitlistService(WaitlistRepository waitlistRepository, ClassRepository classRepository,
+                           StudentRepository studentRepository, ClassService classService,
+                           ApplicationEventPublisher events) {
+        this.waitlistRepository = waitlistRepository;
+        this.classRepository = classRepository;
+        this.studentRepository = studentRepository;
+        this.classService = classService;
+        this.events = events;
+    }
+    
+    /**
+     * Adds the student to the back of the class's waitlist, or returns their place if they are
+     * already on it. A class with free seats can be joined too: the promoter then fills them from
+     * the front of the queue, so nobody overtakes the students already waiting.
+     */
+    public WaitlistPosition join(Long classId, Long studentId) {
+        Class classEntity = classRepository.findById(classId)
+                .orElseThrow(() -> new RuntimeException("Class not found with id: " + classId));
+    
+        if (!studentRepository.existsById(studentId)) {
+            throw new RuntimeException("Student not found with id: " + studentId);
+        }
+    
+        if (classRepository.isEnrolled(classId, studentId)) {
+            throw new RuntimeException("Student is already enrolled in this class");
+        }
+    
+        Optional<WaitlistPosition> existing = waitlistRepository.findPosition(classId, studentId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+    
+        waitlistRepository.save(new WaitlistEntry(classEntity, studentRepository.getReferenceById(studentId)));
+        if (classEntity.hasFreeSeat()) {
+            events.publishEvent(new WaitlistPromoter.SeatsFreed(classId));
+        }
+        return waitlistRepository.findPosition(classId, studentId).orElseThrow();
+    }
+    
+    public void leave(Long classId, Long studentId) {
+        if (waitlistRepository.deleteEntry(classId, studentId) == 0) {
+            throw new RuntimeException("Student is not on the waitlist for this class");
+        }
+    }
+    
+    /** The student's place in the queue, ENROLLED once promoted, or empty if neither. */
+    @Transactional(readOnly = true)
+    public Optional<WaitlistPosition> getPosition(Long classId, Long studentId) {
+        Optional<WaitlistPosition> position = waitlistRepository.findPosition(classId, studentId);
+        if (position.isPresent() || !classRepository.isEnrolled(classId, studentId)) {
+            return position;
+        }
+        return Optional.of(WaitlistPosition.enrolled(classId, studentId));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Long> findClassesToPromote() {
+        return waitlistRepository.findClassIdsWithFreeSeats();
+    }
+    
+    /**
+     * Offers free seats to the front of the class's waitlist: up to {@code batchSize} entries, in
+     * joining order, in one transaction under the class row lock. Every entry offered a seat leaves
+     * the queue, including students who are enrolled already, were deleted, or now have a clashing
+     * class. Returns one result per entry; empty once the class is full or nobody is waiting.
+     */
+    public List<EnrollmentResult> promoteNext(Long classId, int batchSize) {
+        Optional<Class> classEntity = classRepository.findByIdForUpdate(classId);
+        if (classEntity.isEmpty() || !classEntity.get().hasFreeSeat()) {
+            return List.of();
+        }
+        Integer seats = classEntity.get().getSeatsRemaining();
+        int limit = seats == null ? batchSize : Math.min(batchSize, seats);
+    
+        List<WaitlistEntry> head = waitlistRepository.findFirstByClassId(classId, Limit.of(limit));
+        if (head.isEmpty()) {
+            return List.of();
+        }
+    
+        List<EnrollmentResult> results = classService.enrollFromWaitlist(classId,
+                head.stream().map(entry -> entry.getStudent().getId()).toList());
+        waitlistRepository.deleteAllByIdInBatch(head.stream().map(WaitlistEntry::getId).toList());
+        return results;
+    }
+}
@@ -0,0 +1,62 @@
+-- Baseline schema, matching the JPA mappings as of the durable storage profile
+
+CREATE TABLE subjects (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(255),
+    credits     INTEGER
+);
+
+CREATE TABLE teachers (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name     VARCHAR(255) NOT NULL,
+    last_name      VARCHAR(255) NOT NULL,
+    email          VARCHAR(255) UNIQUE,
+    phone          VARCHAR(255),
+    date_of_birth  DATE,
+    hire_date      DATE,
+    specialization VARCHAR(255),
+    salary         FLOAT(53)
+);
+
+CREATE TABLE students (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name      VARCHAR(255) NOT NULL,
+    last_name       VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) UNIQUE,
+    phone           VARCHAR(255),
+    date_of_birth   DATE,
+    enrollment_date DATE,
+    address         VARCHAR(255),
+    grade_level     INTEGER,
+    gpa             FLOAT(53)
+);
+
+CREATE TABLE classes (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(255) NOT NULL,
+    description     VARCHAR(255),
+    room_number     VARCHAR(255),
+    capacity        INTEGER,
+    start_time      TIME(6),
+    end_time        TIME(6),
+    days_of_week    VARCHAR(255),
+    semester        VARCHAR(255),
+    academic_year   VARCHAR(255),
+    enrolled_count  INTEGER NOT NULL,
+    seats_remaining INTEGER,
+    subject_id      BIGINT NOT NULL,
+    teacher_id      BIGINT NOT NULL,
+    CONSTRAINT fk_classes_subject FOREIGN KEY (subject_id) REFERENCES subjects (id),
+    CONSTRAINT fk_classes_teacher FOREIGN KEY (teacher_id) REFERENCES teachers (id)
+);
+
+CREATE INDEX idx_classes_seats_remaining ON classes (seats_remaining);
+
+CREATE TABLE class_students (
+    class_id   BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    PRIMARY KEY (class_id, student_id),
+    CONSTRAINT fk_class_students_class FOREIGN KEY (class_id) REFERENCES classes (id),
+    CONSTRAINT fk_class_students_student FOREIGN KEY (student_id) REFERENCES students (id)
+);
@@ -0,0 +1,25 @@
+-- Indexes backing the repository finders and keyset sorts. Keyset indexes end in id, the
+-- cursor tie-breaker, so "WHERE x = ? AND id > ? ORDER BY id" is a single range scan.
+
+CREATE INDEX idx_students_grade_level ON students (grade_level, id);
+CREATE INDEX idx_students_gpa ON students (gpa);
+CREATE INDEX idx_students_last_name ON students (last_name, id);
+CREATE INDEX idx_students_first_name ON students (first_name, id);
+
+CREATE INDEX idx_teachers_last_name ON teachers (last_name, id);
+CREATE INDEX idx_teachers_first_name ON teachers (first_name, id);
+
+CREATE INDEX idx_classes_semester_year ON classes (semester, academic_year, id);
+CREATE INDEX idx_classes_name ON classes (name, id);
+
+-- The foreign keys are recreated after their indexes so H2 reuses these instead of the
+-- auto-named ones it created for the V1 constraints (it only reuses an exact column match)
+ALTER TABLE classes DROP CONSTRAINT fk_classes_subject;
+ALTER TABLE classes DROP CONSTRAINT fk_classes_teacher;
+CREATE INDEX idx_classes_subject ON classes (subject_id);
+CREATE INDEX idx_classes_teacher ON classes (teacher_id);
+ALTER TABLE classes ADD CONSTRAINT fk_classes_subject FOREIGN KEY (subject_id) REFERENCES subjects (id);
+ALTER TABLE classes ADD CONSTRAINT fk_classes_teacher FOREIGN KEY (teacher_id) REFERENCES teachers (id);
+
+-- Covers "classes of a student" without touching the rows; the primary key covers the roster
+CREATE INDEX idx_class_students_student ON class_students (student_id, class_id);
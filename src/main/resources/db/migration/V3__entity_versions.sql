@@ -0,0 +1,7 @@
+-- Optimistic-lock versions for the @Version columns, also served as ETags. Existing rows
+-- start at 0, as do rows inserted without a version (bulk import, synthetic data).
+
+ALTER TABLE subjects ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE teachers ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE students ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE classes ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,15 @@
+-- Per-class FIFO waitlist; the identity column gives the joining order
+
+CREATE TABLE class_waitlist (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    class_id   BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    joined_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_class_waitlist_class_student UNIQUE (class_id, student_id)
+);
+
+-- Created before the foreign keys so H2 reuses them (see V2)
+CREATE INDEX idx_class_waitlist_class ON class_waitlist (class_id);
+CREATE INDEX idx_class_waitlist_student ON class_waitlist (student_id);
+ALTER TABLE class_waitlist ADD CONSTRAINT fk_class_waitlist_class FOREIGN KEY (class_id) REFERENCES classes (id);
+ALTER TABLE class_waitlist ADD CONSTRAINT fk_class_waitlist_student FOREIGN KEY (student_id) REFERENCES students (id);
@@ -0,0 +1,4 @@
+-- GPA pages are keyset pages like the others, so their index also ends in the id tie-breaker
+
+DROP INDEX idx_students_gpa;
+CREATE INDEX idx_students_gpa ON students (gpa, id);
@@ -0,0 +1,38 @@
+package com.school.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ETagsTest {
+
+    @Test
+    void concurrentChangeIsPreconditionFailedOnlyWithIfMatch() {
+        assertEquals(HttpStatus.PRECONDITION_FAILED, ETags.concurrentChange("\"3\"").getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, ETags.concurrentChange("W/\"3\"").getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, ETags.concurrentChange(null).getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, ETags.concurrentChange("").getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, ETags.concurrentChange("*").getStatusCode());
+    }
+
+    @Test
+    void detailTagsNameTheNegotiatedRepresentation() {
+        assertEquals("", ETags.representation(null));
+        assertEquals("", ETags.representation("*/*"));
+        assertEquals("", ETags.representation("application/json, application/cbor;q=0.5"));
+        assertEquals("-cbor", ETags.representation("application/cbor"));
+        assertEquals("-cbor", ETags.representation("*/*, application/cbor"));
+        assertEquals("-smile", ETags.representation("application/json;q=0.1, application/x-jackson-smile"));
+        assertEquals("", ETags.representation("application/cbor;q=0, */*"));
+    }
+
+    @Test
+    void ifMatchChecksTheVersionOfAnyRepresentation() {
+        assertEquals(7L, ETags.expectedVersion("\"7\""));
+        assertEquals(7L, ETags.expectedVersion("\"7-smile\""));
+        assertEquals(7L, ETags.expectedVersion("\"7-cbor\""));
+        assertEquals(ETags.NO_MATCH, ETags.expectedVersion("W/\"7-cbor\""));
+        assertEquals(ETags.NO_MATCH, ETags.expectedVersion("\"7-xml\""));
+    }
+}
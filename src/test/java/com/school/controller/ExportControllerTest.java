@@ -0,0 +1,28 @@
+package com.school.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportControllerTest {
+
+    @Test
+    void gzipIsUsedWhenAcceptedWithNonZeroQuality() {
+        assertTrue(ExportController.acceptsGzip("gzip"));
+        assertTrue(ExportController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ExportController.acceptsGzip("br, *"));
+        assertTrue(ExportController.acceptsGzip("x-gzip"));
+    }
+
+    @Test
+    void gzipIsNotUsedWhenRefusedOrMissing() {
+        assertFalse(ExportController.acceptsGzip(null));
+        assertFalse(ExportController.acceptsGzip(""));
+        assertFalse(ExportController.acceptsGzip("identity"));
+        assertFalse(ExportController.acceptsGzip("gzip;q=0"));
+        assertFalse(ExportController.acceptsGzip("gzip; q=0.0, deflate"));
+        assertFalse(ExportController.acceptsGzip("*;q=0"));
+        assertFalse(ExportController.acceptsGzip("gzip;q=0, *"));
+    }
+}
@@ -0,0 +1,209 @@
+package com.school.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.config.SqlStatementFilter;
+import com.school.config.StatementBudgetExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Calls every {@link StatementBudget} endpoint under the sql-budget profile, over a few related
+ * rows so that a lazy load in a loop shows up as extra statements. Each call must succeed
+ * without a {@link StatementBudgetExceededException}, and every annotated endpoint must be called.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement_budget",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("sql-budget")
+class StatementBudgetTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private final Set<Method> called = new HashSet<>();
+
+    @Test
+    void everyEndpointStaysWithinItsBudget() throws Exception {
+        List<Long> subjects = new ArrayList<>();
+        List<Long> teachers = new ArrayList<>();
+        List<Long> students = new ArrayList<>();
+        List<Long> classes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            subjects.add(id(call(post("/api/subjects").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"Subject " + i + "\",\"description\":\"Budget\",\"credits\":3}"))));
+            teachers.add(id(call(post("/api/teachers").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"firstName\":\"Teacher\",\"lastName\":\"Number" + i + "\",\"email\":\"teacher" + i
+                            + "@school.com\",\"specialization\":\"Budget\",\"salary\":" + (50000 + i * 1000) + "}"))));
+        }
+        for (int i = 0; i < 6; i++) {
+            students.add(id(call(post("/api/students").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"firstName\":\"Student\",\"lastName\":\"Number" + i + "\",\"email\":\"student" + i
+                            + "@student.com\",\"gradeLevel\":10,\"gpa\":3." + i + "}"))));
+        }
+        // One class per subject/teacher pair on a different day, so a student can take all of them
+        String[] days = {"Monday", "Tuesday", "Wednesday"};
+        for (int i = 0; i < 3; i++) {
+            classes.add(id(call(post("/api/classes").contentType(MediaType.APPLICATION_JSON)
+                    .content(classJson("Class " + i, days[i], i == 2 ? 1 : 30, subjects.get(i), teachers.get(i))))));
+        }
+        Long full = classes.get(2);
+
+        call(post("/api/students/import").contentType("text/csv")
+                .content("firstName,lastName,email,gradeLevel,gpa\nImported,Student,imported@student.com,11,3.1\n"));
+        call(post("/api/teachers/import").contentType("text/csv")
+                .content("firstName,lastName,email,salary\nImported,Teacher,imported@school.com,55000\n"));
+
+        for (Long classId : classes.subList(0, 2)) {
+            call(post("/api/classes/{classId}/enrollments", classId).contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(students.subList(0, 4))));
+        }
+        call(post("/api/classes/{classId}/enroll/{studentId}", full, students.get(0)));
+        call(post("/api/classes/{classId}/waitlist/{studentId}", full, students.get(1)));
+        call(post("/api/classes/{classId}/waitlist/{studentId}", full, students.get(2)));
+        call(get("/api/classes/{classId}/waitlist/{studentId}", full, students.get(2)));
+        call(delete("/api/classes/{classId}/waitlist/{studentId}", full, students.get(2)));
+
+        call(get("/api/subjects"));
+        call(get("/api/subjects/{id}", subjects.get(0)));
+        call(get("/api/subjects/name/{name}", "Subject 1"));
+        call(get("/api/teachers"));
+        call(get("/api/teachers/{id}", teachers.get(0)));
+        call(get("/api/teachers/email/{email}", "teacher1@school.com"));
+        call(get("/api/teachers/search").param("q", "teach num"));
+        call(get("/api/teachers/{id}/timetable", teachers.get(0)));
+        call(get("/api/students"));
+        call(get("/api/students").param("sort", "lastName").param("limit", "2"));
+        call(get("/api/students/{id}", students.get(0)));
+        call(get("/api/students/email/{email}", "student1@student.com"));
+        call(get("/api/students/search").param("q", "stud num"));
+        call(get("/api/students/grade/{gradeLevel}", 10));
+        call(get("/api/students/gpa/{gpa}", 3.0));
+        call(get("/api/students/{id}/timetable", students.get(0)));
+        call(get("/api/classes"));
+        call(get("/api/classes/{id}", classes.get(0)));
+        call(get("/api/classes/subject/{subjectId}", subjects.get(0)));
+        call(get("/api/classes/teacher/{teacherId}", teachers.get(0)));
+        call(get("/api/classes/student/{studentId}", students.get(0)));
+        call(get("/api/classes/semester").param("semester", "Fall").param("academicYear", "2024-2025"));
+        call(get("/api/classes/available"));
+        call(get("/api/analytics/students/gpa").param("groupBy", "gradeLevel"));
+        call(get("/api/analytics/teachers/salary").param("groupBy", "subject"));
+        call(get("/api/changes"));
+        for (String dataset : List.of("students", "teachers", "classes", "enrollments")) {
+            call(get("/api/export/{dataset}", dataset).param("format", "csv"));
+        }
+
+        call(put("/api/subjects/{id}", subjects.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Subject 0\",\"description\":\"Renamed\",\"credits\":4}"));
+        call(put("/api/teachers/{id}", teachers.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Renamed\",\"lastName\":\"Number0\",\"email\":\"teacher0@school.com\"}"));
+        call(put("/api/students/{id}", students.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Renamed\",\"lastName\":\"Number0\",\"email\":\"student0@student.com\"}"));
+        call(put("/api/classes/{id}", classes.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content(classJson("Class 0 renamed", days[0], 30, subjects.get(0), teachers.get(0))));
+
+        call(delete("/api/classes/{classId}/enroll/{studentId}", classes.get(0), students.get(3)));
+        call(delete("/api/classes/{id}", classes.get(1)));
+        call(delete("/api/students/{id}", students.get(5)));
+        call(delete("/api/teachers/{id}", teachers.get(1)));
+        call(delete("/api/subjects/{id}", subjects.get(1)));
+
+        Set<String> missed = new TreeSet<>();
+        for (Map.Entry<?, HandlerMethod> handler : handlerMapping.getHandlerMethods().entrySet()) {
+            Method method = handler.getValue().getMethod();
+            if (method.isAnnotationPresent(StatementBudget.class) && !called.contains(method)) {
+                missed.add(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+            }
+        }
+        assertTrue(missed.isEmpty(), () -> "Endpoints with a statement budget that this test does not call: " + missed);
+    }
+
+    // Performs the request (and its async dispatch, for streamed bodies) and checks the budget
+    private MvcResult call(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result;
+        try {
+            result = mvc.perform(request).andReturn();
+            if (result.getRequest().isAsyncStarted()) {
+                result.getAsyncResult();
+                mvc.perform(asyncDispatch(result)).andReturn();
+            }
+        } catch (Exception e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof StatementBudgetExceededException) {
+                    fail(describe(request) + ": " + cause.getMessage());
+                }
+            }
+            throw e;
+        }
+
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        called.add(handler.getMethod());
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, () -> describe(request) + " returned " + status);
+
+        StatementBudget budget = handler.getMethodAnnotation(StatementBudget.class);
+        String statements = result.getResponse().getHeader(SqlStatementFilter.STATEMENTS_HEADER);
+        if (budget != null) {
+            assertTrue(Integer.parseInt(statements) <= budget.value(),
+                    () -> describe(request) + ": " + statements + " SQL statements, budget is " + budget.value());
+        }
+        return result;
+    }
+
+    private Long id(MvcResult result) throws Exception {
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(true, body.hasNonNull("id"), "response has no id");
+        return body.get("id").asLong();
+    }
+
+    private static String describe(MockHttpServletRequestBuilder request) {
+        MockHttpServletRequest built = request.buildRequest(new MockServletContext());
+        return built.getMethod() + " " + built.getRequestURI();
+    }
+
+    private static String classJson(String name, String day, int capacity, Long subjectId, Long teacherId) {
+        return "{\"name\":\"" + name + "\",\"roomNumber\":\"Room " + day + "\",\"capacity\":" + capacity
+                + ",\"startTime\":\"08:00:00\",\"endTime\":\"09:00:00\",\"daysOfWeek\":\"" + day
+                + "\",\"semester\":\"Fall\",\"academicYear\":\"2024-2025\",\"subjectId\":" + subjectId
+                + ",\"teacherId\":" + teacherId + "}";
+    }
+}
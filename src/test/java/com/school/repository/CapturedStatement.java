@@ -0,0 +1,109 @@
+package com.school.repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A prepared statement executed through a {@link #capturing(DataSource) capturing} DataSource,
+ * with the parameter values it was bound to, so that its plan can be replayed with
+ * {@code EXPLAIN ANALYZE}.
+ */
+record CapturedStatement(String sql, List<Binding> bindings) {
+
+    private static final ThreadLocal<List<CapturedStatement>> CAPTURED = new ThreadLocal<>();
+
+    // One setXxx(index, value, ...) call on the statement
+    record Binding(Method setter, Object[] args) {}
+
+    /** Runs {@code work} and returns the prepared statements it executed on this thread. */
+    static List<CapturedStatement> capture(Runnable work) {
+        List<CapturedStatement> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            work.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements;
+    }
+
+    static DataSource capturing(DataSource target) {
+        return proxy(DataSource.class, target, (method, args, result) ->
+                result instanceof Connection connection ? capturing(connection) : result);
+    }
+
+    private static Connection capturing(Connection target) {
+        return proxy(Connection.class, target, (method, args, result) ->
+                result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                        ? capturing(statement, (String) args[0]) : result);
+    }
+
+    private static PreparedStatement capturing(PreparedStatement target, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return proxy(PreparedStatement.class, target, (method, args, result) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                List<CapturedStatement> statements = CAPTURED.get();
+                if (statements != null) {
+                    statements.add(new CapturedStatement(sql, List.copyOf(bindings)));
+                }
+            }
+            return result;
+        });
+    }
+
+    /** The value bound to the 1-based parameter {@code index}, or null if none was bound. */
+    Object parameter(int index) {
+        for (Binding binding : bindings) {
+            if ((Integer) binding.args()[0] == index) {
+                return binding.args()[1];
+            }
+        }
+        return null;
+    }
+
+    /** Executes the statement under {@code EXPLAIN ANALYZE} and returns the annotated plan. */
+    String explainAnalyze(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN ANALYZE " + sql)) {
+            for (Binding binding : bindings) {
+                binding.setter().invoke(explain, binding.args());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        } catch (SQLException | ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot explain " + sql, e);
+        }
+    }
+
+    private interface AfterCall {
+        Object apply(Method method, Object[] args, Object result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, AfterCall after) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return after.apply(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
@@ -0,0 +1,298 @@
+package com.school.repository;
+
+import com.school.config.SyntheticDataGenerator;
+import com.school.config.SyntheticDataProperties;
+import com.school.service.ClassService;
+import com.school.service.StudentService;
+import com.school.service.SubjectService;
+import com.school.service.TeacherService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository query against a synthetic dataset, captures the statements and
+ * parameters sent to the database, and replays each with H2's {@code EXPLAIN ANALYZE}. A
+ * lookup fails if it reads a whole table (a {@code tableScan} or a full index walk), and a
+ * page fails if any table's {@code scanCount} is far above its {@code FETCH FIRST} limit.
+ * Exports and the enrolled_count reconciler read every row by design; they fail if the rows
+ * have to be collected and sorted first instead of being streamed in index order.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_plans",
+        "spring.jpa.show-sql=false",
+        "school.enrollment.reconcile-cron=-"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    // An index comment without ": condition" means the whole index is walked; EXPLAIN ANALYZE
+    // follows each table's access comment with the number of rows read from it, as "scanCount: n"
+    private static final Pattern SCAN = Pattern.compile("/\\* (\\S+?)(: [^*]*)? \\*/");
+
+    // FETCH FIRST with the row count as a literal or a parameter
+    private static final Pattern FETCH_FIRST = Pattern.compile("fetch first (\\?|\\d+) rows",
+            Pattern.CASE_INSENSITIVE);
+
+    // A page may read this many rows per row it returns; a sorted walk that filters rows out on
+    // the way reads the table instead
+    private static final int MAX_ROWS_READ_PER_ROW_RETURNED = 4;
+
+    // Pages that read past their limit by design, held to the whole-table checks only
+    private static final Map<String, String> UNBOUNDED_PAGES = Map.of(
+            "students by last name", "H2 starts a (last_name, id) range at the cursor's name, not its id, "
+                    + "so the rows sharing that name are read again; the synthetic data has 16 last names",
+            "students gpa above page", "a gpa range in id order: no index serves both, so H2 either walks "
+                    + "the primary key past lower GPAs or reads every match and sorts",
+            "available classes page", "a seats_remaining range in id order, as above");
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StudentService students;
+
+    @Autowired
+    private TeacherService teachers;
+
+    @Autowired
+    private SubjectService subjects;
+
+    @Autowired
+    private ClassService classes;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    // Records the statements the application runs, with their parameters, for EXPLAIN ANALYZE
+    @TestConfiguration
+    static class CaptureStatements {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                            ? CapturedStatement.capturing(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private long studentId;
+    private long teacherId;
+    private long subjectId;
+    private long classId;
+
+    @BeforeAll
+    void populate() {
+        // Large enough that H2 prefers an index over a scan wherever an index applies
+        SyntheticDataProperties props = new SyntheticDataProperties();
+        props.setStudents(20000);
+        props.setTeachers(1000);
+        props.setSubjects(100);
+        props.setClasses(4000);
+        generator.generate(props);
+
+        studentId = jdbc.queryForObject("SELECT MIN(id) + COUNT(*) / 2 FROM students", Long.class);
+        teacherId = jdbc.queryForObject("SELECT MIN(id) + COUNT(*) / 2 FROM teachers", Long.class);
+        subjectId = jdbc.queryForObject("SELECT MIN(id) + COUNT(*) / 2 FROM subjects", Long.class);
+        classId = jdbc.queryForObject("SELECT MIN(class_id) FROM class_students", Long.class);
+        jdbc.update("INSERT INTO class_waitlist (class_id, student_id, joined_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                classId, studentId);
+        // Refresh the optimizer's selectivity statistics after the bulk load
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void lookupsUseIndexRanges() {
+        KeysetRequest second = KeysetRequest.of(studentId, 50, null, null);
+        KeysetRequest byLastName = KeysetRequest.of(studentId, 50, "lastName", "asc");
+        KeysetRequest byName = KeysetRequest.of(classId, 50, "name", "desc");
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("students page", () -> students.getAllStudents(second));
+        queries.put("students by last name", () -> students.getAllStudents(byLastName));
+        queries.put("student by email", () -> students.getStudentByEmail(SyntheticDataGenerator.studentEmail(10)));
+        queries.put("student email exists", () -> studentRepository.existsByEmail(SyntheticDataGenerator.studentEmail(10)));
+        queries.put("students by grade", () -> studentRepository.findByGradeLevel(10));
+        queries.put("students by grade page", () -> students.getStudentsByGradeLevel(10, second));
+        queries.put("students gpa above", () -> studentRepository.findByGpaGreaterThan(3.9));
+        queries.put("students gpa above page", () -> students.getStudentsWithGpaAbove(3.9, second));
+        queries.put("existing student ids", () -> students.findExistingIds(Set.of(studentId, studentId + 1)));
+        queries.put("teachers by last name", () -> teachers.getAllTeachers(
+                KeysetRequest.of(teacherId, 50, "lastName", "asc")));
+        queries.put("teacher by email", () -> teachers.getTeacherByEmail(SyntheticDataGenerator.teacherEmail(10)));
+        queries.put("teacher email exists", () -> teacherRepository.existsByEmail(SyntheticDataGenerator.teacherEmail(10)));
+        queries.put("subject by name", () -> subjects.getSubjectByName(SyntheticDataGenerator.subjectName(10)));
+        queries.put("classes page", () -> classes.getAllClasses(KeysetRequest.of(classId, 50, null, null)));
+        queries.put("classes by name", () -> classes.getAllClasses(byName));
+        queries.put("class summary", () -> classes.getClassSummaryById(classId));
+        queries.put("classes by subject", () -> classes.getClassesBySubject(subjectId));
+        queries.put("classes by subject page", () -> classes.getClassesBySubject(subjectId, KeysetRequest.firstPage()));
+        queries.put("classes by teacher", () -> classes.getClassesByTeacher(teacherId));
+        queries.put("classes by teacher page", () -> classes.getClassesByTeacher(teacherId, KeysetRequest.firstPage()));
+        queries.put("classes by student", () -> classes.getClassesByStudent(studentId));
+        queries.put("classes by student page", () -> classes.getClassesByStudent(studentId, KeysetRequest.firstPage()));
+        queries.put("classes by semester", () -> classes.getClassesBySemesterAndYear("Fall", "2024-2025"));
+        queries.put("classes by semester page", () -> classes.getClassesBySemesterAndYear("Fall", "2024-2025",
+                KeysetRequest.firstPage()));
+        queries.put("student timetable", () -> classRepository.findSummariesByStudentId(studentId));
+        queries.put("teacher timetable", () -> classRepository.findSummariesByTeacherId(teacherId));
+        queries.put("available classes", () -> classRepository.findAvailableClasses());
+        queries.put("available classes page", () -> classes.getAvailableClasses(KeysetRequest.firstPage()));
+        queries.put("class for update", () -> classRepository.findByIdForUpdate(classId));
+        queries.put("count enrolled", () -> classRepository.countEnrolled(classId));
+        queries.put("is enrolled", () -> classRepository.isEnrolled(classId, studentId));
+        queries.put("class roster", () -> classRepository.findStudentIdsByClassId(classId));
+        queries.put("enrolled student ids", () -> classRepository.findEnrolledStudentIds(classId,
+                List.of(studentId, studentId + 1)));
+        queries.put("waitlist position", () -> waitlistRepository.findPosition(classId, studentId));
+        queries.put("waitlist head", () -> waitlistRepository.findFirstByClassId(classId, Limit.of(100)));
+        queries.put("waitlist exists", () -> waitlistRepository.existsByClassId(classId));
+        queries.put("waitlisted classes with free seats", () -> waitlistRepository.findClassIdsWithFreeSeats());
+
+        List<String> failures = check(queries, (name, plan, pageLimit) ->
+                fullScan(plan, UNBOUNDED_PAGES.containsKey(name) ? null : pageLimit));
+        assertTrue(failures.isEmpty(), () -> "Full scans:\n" + String.join("\n", failures));
+    }
+
+    @Test
+    void wholeTableReadsStreamInIndexOrder() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("export students", () -> drain(studentRepository.streamAll()));
+        queries.put("export teachers", () -> drain(teacherRepository.streamAll()));
+        queries.put("export classes", () -> drain(classRepository.streamSummaries()));
+        queries.put("export enrollments", () -> drain(classRepository.streamEnrollments()));
+        queries.put("enrolled count drift", () -> classRepository.findClassIdsWithEnrolledCountDrift());
+
+        List<String> failures = check(queries, (name, plan, pageLimit) -> sortedInMemory(plan));
+        assertTrue(failures.isEmpty(), () -> "Whole-table reads sorted in memory:\n" + String.join("\n", failures));
+    }
+
+    // Runs each query in a transaction and returns "name: verdict\nplan" for every failing SELECT
+    private List<String> check(Map<String, Runnable> queries, Verdict verdictOf) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            List<CapturedStatement> statements = CapturedStatement.capture(
+                    () -> tx.executeWithoutResult(status -> query.getValue().run()));
+            for (CapturedStatement statement : statements) {
+                if (!statement.sql().trim().regionMatches(true, 0, "select", 0, 6)) {
+                    continue;
+                }
+                String plan = statement.explainAnalyze(primaryDataSource);
+                String verdict = verdictOf.of(query.getKey(), plan, pageLimit(statement));
+                if (verdict != null) {
+                    failures.add(query.getKey() + ": " + verdict + "\n" + plan);
+                }
+            }
+        }
+        return failures;
+    }
+
+    private interface Verdict {
+        // A failure description for the plan of one of the query's statements, or null
+        String of(String query, String plan, Integer pageLimit);
+    }
+
+    // The FETCH FIRST row count of a statement, or null when it reads all matching rows
+    private static Integer pageLimit(CapturedStatement statement) {
+        Matcher m = FETCH_FIRST.matcher(statement.sql());
+        if (!m.find()) {
+            return null;
+        }
+        if (!m.group(1).equals("?")) {
+            return Integer.valueOf(m.group(1));
+        }
+        int index = (int) statement.sql().substring(0, m.start()).chars().filter(c -> c == '?').count() + 1;
+        return ((Number) statement.parameter(index)).intValue();
+    }
+
+    private static void drain(Stream<?> rows) {
+        try (rows) {
+            rows.forEach(row -> { });
+        }
+    }
+
+    // Returns "FULL SCAN <table or index>" for an unbounded read and "READ n ROWS OF <table or index>"
+    // for a page (pageLimit set) that reads far more rows than it returns, or null when every
+    // access is bounded. A LIMIT alone bounds nothing: a sorted walk with a selective filter
+    // reads until it has found the page, so only the scanCount of each table counts
+    static String fullScan(String plan, Integer pageLimit) {
+        if (plan.contains("/* direct lookup */")) {
+            return null;
+        }
+        String access = null;
+        Matcher m = SCAN.matcher(plan);
+        while (m.find()) {
+            if (m.group(1).equals("scanCount")) {
+                long scanned = Long.parseLong(m.group(2).substring(2).trim());
+                if (pageLimit != null && scanned > MAX_ROWS_READ_PER_ROW_RETURNED * pageLimit) {
+                    return "READ " + scanned + " ROWS OF " + access + " FOR A PAGE OF " + pageLimit;
+                }
+                continue;
+            }
+            access = m.group(1);
+            if (access.endsWith(".tableScan")) {
+                return "FULL SCAN " + access;
+            }
+            // A whole index walk is only bounded when FETCH FIRST stops it early, which scanCount shows
+            if (access.startsWith("PUBLIC.") && m.group(2) == null && pageLimit == null) {
+                return "FULL SCAN " + access;
+            }
+        }
+        return null;
+    }
+
+    // Returns a verdict when an ordered or grouped whole-table read cannot follow an index
+    static String sortedInMemory(String plan) {
+        boolean ordered = plan.contains("ORDER BY") || plan.contains("GROUP BY");
+        if (ordered && !plan.contains("/* index sorted */") && !plan.contains("/* group sorted */")) {
+            return "SORTED IN MEMORY";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.school.service;
+
+import com.school.entity.Class;
+import com.school.entity.Student;
+import com.school.entity.Subject;
+import com.school.entity.Teacher;
+import com.school.repository.ClassRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires a few hundred concurrent enrollments at one class and checks that the class row lock
+ * keeps the class at capacity: exactly {@code capacity} students get in, enrolled_count agrees
+ * with class_students, and everyone else is told the class is full.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:class_service_concurrency",
+        "spring.jpa.show-sql=false"
+})
+class ClassServiceConcurrencyTest {
+
+    private static final int CAPACITY = 40;
+    private static final int STUDENTS = 400;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private ClassService classService;
+
+    @Autowired
+    private SubjectService subjectService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Test
+    void concurrentEnrollmentsNeverExceedCapacity() throws Exception {
+        Long classId = createClass().getId();
+        List<Long> studentIds = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds.add(studentService.createStudent(new Student("Load", "Student" + i,
+                    "load.student" + i + "@student.com", null, LocalDate.of(2005, 1, 1),
+                    LocalDate.of(2020, 9, 1), null, 10, 3.0)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> outcomes = new ArrayList<>(STUDENTS);
+        try {
+            // Every task waits on the latch so the enrollments hit the class at the same time;
+            // a task returns null when enrolled and the rejection message otherwise
+            for (Long studentId : studentIds) {
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        classService.enrollStudent(classId, studentId);
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e.getMessage();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int enrolled = 0;
+            List<String> rejections = new ArrayList<>();
+            for (Future<String> outcome : outcomes) {
+                String rejection = outcome.get(2, TimeUnit.MINUTES);
+                if (rejection == null) {
+                    enrolled++;
+                } else {
+                    rejections.add(rejection);
+                }
+            }
+
+            long countEnrolled = classRepository.countEnrolled(classId);
+            assertEquals(CAPACITY, enrolled);
+            assertEquals(CAPACITY, countEnrolled);
+            assertEquals(countEnrolled, classRepository.findById(classId).orElseThrow().getEnrolledCount());
+            assertEquals(STUDENTS - CAPACITY, rejections.size());
+            assertTrue(rejections.stream().allMatch("Class is full"::equals),
+                    () -> "Unexpected rejections: " + rejections.stream().distinct().toList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Class createClass() {
+        Subject subject = subjectService.createSubject(new Subject("Concurrency", "Enrollment stress test", 3));
+        Teacher teacher = teacherService.createTeacher(new Teacher("Load", "Teacher", "load.teacher@school.com",
+                null, LocalDate.of(1980, 1, 1), LocalDate.of(2010, 9, 1), "Concurrency", 60000.0));
+
+        Class classEntity = new Class();
+        classEntity.setName("Stress Test");
+        classEntity.setRoomNumber("Room 900");
+        classEntity.setCapacity(CAPACITY);
+        classEntity.setStartTime(LocalTime.of(8, 0));
+        classEntity.setEndTime(LocalTime.of(9, 0));
+        classEntity.setDaysOfWeek("Monday");
+        classEntity.setSemester("Fall");
+        classEntity.setAcademicYear("2024-2025");
+        classEntity.setSubjectId(subject.getId());
+        classEntity.setTeacherId(teacher.getId());
+        return classService.createClass(classEntity);
+    }
+}
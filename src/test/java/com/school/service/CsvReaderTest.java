@@ -0,0 +1,37 @@
+package com.school.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsAndCountsEveryKindOfLineBreak() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,\"b,\"\"c\"\"\"\r\n\"multi\rline\",d\re,\n\nf\n"));
+        assertEquals(List.of("a", "b,\"c\""), csv.next());
+        assertEquals(1, csv.getRecordLine());
+        assertEquals(List.of("multi\rline", "d"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertEquals(Arrays.asList("e", null), csv.next());
+        assertEquals(4, csv.getRecordLine());
+        assertEquals(List.of("f"), csv.next());
+        assertEquals(6, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void refusesTextAfterAClosingQuote() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("ok,\"fine\"\r\"abc\"def,x\n"));
+        assertEquals(List.of("ok", "fine"), csv.next());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, csv::next);
+        assertEquals("Unexpected text after the closing quote on line 2", e.getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package com.school.service;
+
+import com.school.dto.ImportReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import_service",
+        "spring.jpa.show-sql=false"
+})
+class ImportServiceTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void malformedRecordStopsTheImportAndReportsWhatWasCommitted() throws Exception {
+        // Past one full batch, so the first 1000 rows are committed before the bad record is read
+        int valid = ImportService.BATCH_SIZE + 500;
+        StringBuilder csv = new StringBuilder("firstName,lastName,email\n");
+        for (int i = 0; i < valid; i++) {
+            csv.append("Import,Student").append(i).append(",import").append(i).append("@student.com\n");
+        }
+        long badLine = valid + 2;
+        csv.append("Broken,\"Unterminated,broken@student.com\n");
+        csv.append("Never,Read,never@student.com\n");
+
+        ImportReport report = importService.importStudents(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(valid, report.getRows());
+        assertEquals(valid, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertNotNull(report.getFatalError());
+        assertEquals(badLine, report.getFatalError().getLine());
+        assertEquals(valid, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM students WHERE email LIKE 'import%@student.com'", Long.class));
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM students WHERE email = 'never@student.com'", Long.class));
+    }
+
+    @Test
+    void wellFormedFileHasNoFatalError() throws Exception {
+        ImportReport report = importService.importTeachers(new ByteArrayInputStream(
+                "firstName,lastName,email\nWell,Formed,well.formed@school.com\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, report.getImported());
+        assertNull(report.getFatalError());
+    }
+}
@@ -0,0 +1,45 @@
+package com.school.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScheduleTest {
+
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+    private static final LocalTime TEN = LocalTime.of(10, 0);
+
+    @Test
+    void readsNamesRangesAndLetterCodes() {
+        assertEquals("Mon,Wed,Fri", days("Monday,Wednesday,Friday"));
+        assertEquals("Mon,Wed", days("Mon, Wed"));
+        assertEquals("Mon,Wed", days("Monday and Wednesday"));
+        assertEquals("Tue,Thu", days("Tues & Thurs"));
+        assertEquals("Mon,Tue,Wed,Thu,Fri", days("Mon-Fri"));
+        assertEquals("Mon,Tue,Wed,Thu,Fri", days("Monday - Friday"));
+        assertEquals("Mon,Tue,Wed,Thu,Fri", days("Monday to Friday"));
+        assertEquals("Mon,Sat,Sun", days("Sat-Mon"));
+        assertEquals("Mon,Wed,Fri", days("MWF"));
+        assertEquals("Tue,Thu", days("TTh"));
+        assertEquals("Tue,Thu", days("TR"));
+        assertEquals("Mon,Tue,Wed,Thu,Fri", days("MTWThF"));
+    }
+
+    @Test
+    void refusesUnreadableDaysAndEmptyTimes() {
+        assertThrows(IllegalArgumentException.class, () -> Schedule.of("TBA", NINE, TEN));
+        assertThrows(IllegalArgumentException.class, () -> Schedule.of("MW-F", NINE, TEN));
+        assertThrows(IllegalArgumentException.class, () -> Schedule.of("Monday", TEN, NINE));
+        assertThrows(IllegalArgumentException.class, () -> Schedule.of("Monday", NINE, NINE));
+        assertNull(Schedule.of(" ", NINE, TEN));
+    }
+
+    private static String days(String text) {
+        String schedule = Schedule.of(text, NINE, TEN).toString();
+        return schedule.substring(0, schedule.indexOf(' '));
+    }
+}
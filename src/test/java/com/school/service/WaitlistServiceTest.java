@@ -0,0 +1,108 @@
+package com.school.service;
+
+import com.school.dto.EnrollmentResult;
+import com.school.entity.Class;
+import com.school.entity.Student;
+import com.school.entity.Subject;
+import com.school.entity.Teacher;
+import com.school.repository.ClassRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:waitlist_service",
+        "spring.jpa.show-sql=false",
+        "school.waitlist.sweep-ms=3600000"
+})
+class WaitlistServiceTest {
+
+    @Autowired
+    private ClassService classService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private SubjectService subjectService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void bulkEnrollmentDoesNotTakeSeatsFromWaitingStudents() {
+        Subject subject = subjectService.createSubject(new Subject("Waitlist", "Queue order", 3));
+        Teacher teacher = teacherService.createTeacher(new Teacher("Queue", "Teacher", "queue.teacher@school.com",
+                null, null, null, "Waitlist", 60000.0));
+        Class classEntity = new Class();
+        classEntity.setName("Queue Class");
+        classEntity.setCapacity(2);
+        classEntity.setSubjectId(subject.getId());
+        classEntity.setTeacherId(teacher.getId());
+        Long classId = classService.createClass(classEntity).getId();
+        Long waiting = student(0);
+        Long jumper = student(1);
+
+        // A free seat with a student still queued for it, as between a seat freeing up and its promotion
+        jdbc.update("INSERT INTO class_waitlist (class_id, student_id, joined_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                classId, waiting);
+
+        List<EnrollmentResult> results = classService.enrollStudents(classId, List.of(jumper));
+        assertEquals(EnrollmentResult.Status.OVER_CAPACITY, results.get(0).getStatus());
+        assertEquals(0, classRepository.countEnrolled(classId));
+
+        List<EnrollmentResult> promoted = waitlistService.promoteNext(classId, 10);
+        assertEquals(1, promoted.size());
+        assertEquals(waiting, promoted.get(0).getStudentId());
+        assertEquals(EnrollmentResult.Status.ENROLLED, promoted.get(0).getStatus());
+
+        // With the queue empty the remaining seat is open to everyone again
+        results = classService.enrollStudents(classId, List.of(jumper));
+        assertEquals(EnrollmentResult.Status.ENROLLED, results.get(0).getStatus());
+        assertEquals(2, classRepository.countEnrolled(classId));
+    }
+
+    @Test
+    void capacityCannotDropBelowTheStudentsAlreadyEnrolled() {
+        Subject subject = subjectService.createSubject(new Subject("Shrinking", "Capacity cut", 3));
+        Teacher teacher = teacherService.createTeacher(new Teacher("Shrink", "Teacher", "shrink.teacher@school.com",
+                null, null, null, "Waitlist", 60000.0));
+        Class classEntity = new Class();
+        classEntity.setName("Shrinking Class");
+        classEntity.setCapacity(3);
+        classEntity.setSubjectId(subject.getId());
+        classEntity.setTeacherId(teacher.getId());
+        Long classId = classService.createClass(classEntity).getId();
+        classService.enrollStudents(classId, List.of(student(10), student(11)));
+
+        classEntity.setCapacity(1);
+        assertThrows(IllegalArgumentException.class, () -> classService.updateClass(classId, classEntity, null));
+        Class unchanged = classRepository.findById(classId).orElseThrow();
+        assertEquals(3, unchanged.getCapacity());
+        assertEquals(1, unchanged.getSeatsRemaining());
+
+        classEntity.setCapacity(2);
+        assertEquals(0, classService.updateClass(classId, classEntity, null).getSeatsRemaining());
+    }
+
+    private Long student(int i) {
+        return studentService.createStudent(new Student("Queue", "Student" + i, "queue.student" + i + "@student.com",
+                null, null, null, null, 10, 3.0)).getId();
+    }
+}